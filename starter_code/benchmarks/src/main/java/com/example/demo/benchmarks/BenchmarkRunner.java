@@ -0,0 +1,33 @@
+package com.example.demo.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the usual JMH command line, but writes the results as JSON
+ * (to jmh-result.json) unless another format is requested, so runs of two builds can
+ * be diffed.
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		if(commandLine.shouldHelp()) {
+			commandLine.showHelp();
+			return;
+		}
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+		if(!commandLine.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		Runner runner = new Runner(options.build());
+		if(commandLine.shouldList()) {
+			runner.list();
+			return;
+		}
+		runner.run();
+	}
+}
@@ -0,0 +1,65 @@
+package com.example.demo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.Item;
+
+/**
+ * Cart mutations against a cart that already holds {@code lineCount} distinct items.
+ * Each add is paired with a remove of the same item so the cart stays the same size
+ * across invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+
+	@Param({"10", "1000", "100000"})
+	private int lineCount;
+
+	private Item[] items;
+	private Item newItem;
+	private Cart cart;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Item[] all = Fixtures.items(lineCount + 1);
+		items = new Item[lineCount];
+		System.arraycopy(all, 0, items, 0, lineCount);
+		newItem = all[lineCount];
+		cart = Fixtures.cart(items, 1);
+	}
+
+	@Benchmark
+	public Cart addThenRemoveExistingItem() {
+		Item item = items[next++ % lineCount];
+		cart.addItem(item, 1);
+		cart.removeItem(item, 1);
+		return cart;
+	}
+
+	@Benchmark
+	public Cart addThenRemoveNewLine() {
+		cart.addItem(newItem, 1);
+		cart.removeItem(newItem, 1);
+		return cart;
+	}
+}
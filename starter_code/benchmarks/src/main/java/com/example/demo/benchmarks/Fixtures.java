@@ -0,0 +1,40 @@
+package com.example.demo.benchmarks;
+
+import java.math.BigDecimal;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.User;
+
+final class Fixtures {
+
+	private Fixtures() {
+	}
+
+	static Item[] items(int count) {
+		Item[] items = new Item[count];
+		for(int i = 0; i < count; i++) {
+			Item item = new Item();
+			item.setId((long) i + 1);
+			item.setName("Item " + (i + 1));
+			item.setDescription("Benchmark item number " + (i + 1));
+			item.setPrice(BigDecimal.valueOf(100 + i % 900, 2));
+			items[i] = item;
+		}
+		return items;
+	}
+
+	static Cart cart(Item[] items, int quantity) {
+		User user = new User();
+		user.setId(1L);
+		user.setUsername("benchmark");
+		Cart cart = new Cart();
+		cart.setId(1L);
+		cart.setUser(user);
+		user.setCart(cart);
+		for(Item item : items) {
+			cart.addItem(item, quantity);
+		}
+		return cart;
+	}
+}
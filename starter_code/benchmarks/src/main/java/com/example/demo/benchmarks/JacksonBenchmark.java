@@ -0,0 +1,89 @@
+package com.example.demo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.UserOrder;
+import com.example.demo.model.responses.CartResponse;
+import com.example.demo.model.responses.OrderResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Response serialization with an ObjectMapper configured the way Spring MVC builds its own,
+ * with and without the Blackbird module the application registers. The entity benchmarks
+ * write the JPA entities the controllers used to return; the response benchmarks include
+ * copying the entity into its response class. After each run the payload sizes are printed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonBenchmark {
+
+	@Param({"10", "1000"})
+	private int lineCount;
+
+	@Param({"false", "true"})
+	private boolean blackbird;
+
+	private ObjectWriter writer;
+	private Cart cart;
+	private UserOrder order;
+
+	@Setup
+	public void setup() {
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+		if(blackbird) {
+			builder.modulesToInstall(new BlackbirdModule());
+		}
+		writer = builder.build().writer();
+		cart = Fixtures.cart(Fixtures.items(lineCount), 2);
+		order = UserOrder.createFromCart(cart);
+		order.setId(1L);
+	}
+
+	@TearDown
+	public void tearDown() throws JsonProcessingException {
+		System.out.printf("%nPayload bytes (lineCount %d): cart %d as entity, %d as response; order %d as entity, %d as response%n",
+				lineCount, serializeCart().length, serializeCartResponse().length,
+				serializeUserOrder().length, serializeOrderResponse().length);
+	}
+
+	@Benchmark
+	public byte[] serializeCart() throws JsonProcessingException {
+		return writer.writeValueAsBytes(cart);
+	}
+
+	@Benchmark
+	public byte[] serializeCartResponse() throws JsonProcessingException {
+		return writer.writeValueAsBytes(new CartResponse(cart));
+	}
+
+	@Benchmark
+	public byte[] serializeUserOrder() throws JsonProcessingException {
+		return writer.writeValueAsBytes(order);
+	}
+
+	@Benchmark
+	public byte[] serializeOrderResponse() throws JsonProcessingException {
+		return writer.writeValueAsBytes(new OrderResponse(order));
+	}
+}
@@ -0,0 +1,127 @@
+package com.example.demo.benchmarks;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.UserOrder;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Persists one order per operation against an in-memory H2 database migrated with the
+ * application's schema, with JDBC batching off ({@code batchSize} 1) and on. At the end
+ * of each trial the mean number of JDBC executions, statements plus batches, per saved
+ * order is printed next to the timing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderPersistenceBenchmark {
+
+	@Param({"1", "50"})
+	private int batchSize;
+
+	@Param({"10", "1000"})
+	private int lineCount;
+
+	private HikariDataSource dataSource;
+	private EntityManagerFactory entityManagerFactory;
+	private Cart cart;
+	private long orders;
+
+	@Setup
+	public void setup() {
+		dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl("jdbc:h2:mem:orders-" + batchSize + "-" + lineCount + ";DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER");
+		dataSource.setUsername("sa");
+		Flyway.configure().dataSource(dataSource).load().migrate();
+		cart = Fixtures.cart(Fixtures.items(lineCount), 1);
+		new JdbcTemplate(dataSource).update("insert into user (id, username, password) values (?, ?, ?)",
+				cart.getUser().getId(), cart.getUser().getUsername(), "password");
+
+		Properties properties = new Properties();
+		properties.setProperty("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName());
+		properties.setProperty("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName());
+		properties.setProperty("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+		properties.setProperty("hibernate.jdbc.batch_size", String.valueOf(batchSize));
+		properties.setProperty("hibernate.order_inserts", "true");
+		properties.setProperty("hibernate.order_updates", "true");
+		properties.setProperty("hibernate.session.events.auto", RoundTripListener.class.getName());
+		LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+		factory.setDataSource(dataSource);
+		factory.setPackagesToScan("com.example.demo.model.persistence");
+		factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		factory.setJpaProperties(properties);
+		factory.afterPropertiesSet();
+		entityManagerFactory = factory.getObject();
+		RoundTripListener.EXECUTIONS.set(0);
+	}
+
+	@TearDown
+	public void tearDown() {
+		System.out.printf("%n%.1f JDBC round trips per order (batchSize %d, lineCount %d)%n",
+				(double) RoundTripListener.EXECUTIONS.get() / orders, batchSize, lineCount);
+		entityManagerFactory.close();
+		dataSource.close();
+	}
+
+	@Benchmark
+	public UserOrder saveOrder() {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			entityManager.getTransaction().begin();
+			UserOrder order = UserOrder.createFromCart(cart);
+			entityManager.persist(order);
+			entityManager.getTransaction().commit();
+			orders++;
+			return order;
+		} finally {
+			entityManager.close();
+		}
+	}
+
+	/**
+	 * Counts every JDBC statement and batch execution of every session.
+	 */
+	public static class RoundTripListener extends BaseSessionEventListener {
+
+		static final AtomicLong EXECUTIONS = new AtomicLong();
+
+		@Override
+		public void jdbcExecuteStatementStart() {
+			EXECUTIONS.incrementAndGet();
+		}
+
+		@Override
+		public void jdbcExecuteBatchStart() {
+			EXECUTIONS.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.example.demo.loadtest;
+
+/**
+ * The requests a virtual user can make. {@link #SIGN_UP} only runs once, when the user
+ * starts; the others are picked by weight from the scenario's mix. {@link #CREATE_USER}
+ * registers a new account each time, to load the sign-up path during the run.
+ */
+public enum Action {
+
+	SIGN_UP("signUp", "POST /api/user/create"),
+	CREATE_USER("createUser", "POST /api/user/create (new account)"),
+	LOGIN("login", "POST /login"),
+	BROWSE_ITEMS("browseItems", "GET /api/item"),
+	ITEM_PAGE("itemPage", "GET /api/item/page"),
+	SEARCH_ITEMS("searchItems", "GET /api/item/search"),
+	GET_ITEM("getItem", "GET /api/item/{id}"),
+	ADD_TO_CART("addToCart", "POST /api/cart/addToCart"),
+	REMOVE_FROM_CART("removeFromCart", "POST /api/cart/removeFromCart"),
+	MODIFY_CART("modifyCart", "POST /api/cart/modifyCart"),
+	SUBMIT_ORDER("submitOrder", "POST /api/order/submit/{username}"),
+	ORDER_HISTORY("orderHistory", "GET /api/order/history/{username}");
+
+	private final String key;
+	private final String endpoint;
+
+	Action(String key, String endpoint) {
+		this.key = key;
+		this.endpoint = endpoint;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	public static Action fromKey(String key) {
+		for(Action action : values()) {
+			if(action.key.equals(key)) {
+				return action;
+			}
+		}
+		throw new IllegalArgumentException("Unknown action in scenario mix: " + key);
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.demo.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal blocking HTTP client on top of {@link HttpURLConnection}, which keeps
+ * connections alive between requests as long as every response body is read fully.
+ */
+class ApiClient {
+
+	private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+	private static final int READ_TIMEOUT_MILLIS = 60_000;
+
+	private final String baseUrl;
+
+	ApiClient(String baseUrl) {
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+	}
+
+	Response get(String path, String token) throws IOException {
+		return send("GET", path, null, token);
+	}
+
+	Response post(String path, String json, String token) throws IOException {
+		return send("POST", path, json, token);
+	}
+
+	private Response send(String method, String path, String json, String token) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+		connection.setRequestMethod(method);
+		connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+		connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+		connection.setRequestProperty("Accept", "application/json");
+		if(token != null) {
+			connection.setRequestProperty("Authorization", token);
+		}
+		if(json != null) {
+			byte[] body = json.getBytes(StandardCharsets.UTF_8);
+			connection.setDoOutput(true);
+			connection.setRequestProperty("Content-Type", "application/json");
+			connection.setFixedLengthStreamingMode(body.length);
+			try(OutputStream out = connection.getOutputStream()) {
+				out.write(body);
+			}
+		}
+		int status = connection.getResponseCode();
+		InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+		String body = in == null ? "" : readFully(in);
+		return new Response(status, body, connection.getHeaderField("Authorization"));
+	}
+
+	private static String readFully(InputStream in) throws IOException {
+		try(InputStream stream = in) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while((read = stream.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	static final class Response {
+		final int status;
+		final String body;
+		final String authorization;
+
+		private Response(int status, String body, String authorization) {
+			this.status = status;
+			this.body = body;
+			this.authorization = authorization;
+		}
+
+		boolean isSuccess() {
+			return status >= 200 && status < 300;
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package com.example.demo.loadtest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Keeps connections to the server busy with requests that never finish: each one sends
+ * the headers of a sign-up and then a byte of its body every few seconds, well inside the
+ * server's read timeout. A servlet container parks a request thread on every one of these
+ * while it waits for the body; an event-loop server only holds the socket.
+ * <p>
+ * Connections that are merely idle between requests would not show the difference, since
+ * Tomcat's NIO connector does not tie up a thread for a keep-alive connection either.
+ */
+class IdleConnections implements Closeable {
+
+	private static final long TRICKLE_SECONDS = 5;
+	private static final int DECLARED_BODY_LENGTH = 1_000_000;
+
+	private final Logger logger = LogManager.getLogger(IdleConnections.class);
+
+	private final List<Socket> sockets = new ArrayList<>();
+	private final ScheduledExecutorService trickler = Executors.newSingleThreadScheduledExecutor();
+
+	IdleConnections(String baseUrl, int count) throws IOException {
+		URL url = new URL(baseUrl);
+		int port = url.getPort() == -1 ? url.getDefaultPort() : url.getPort();
+		byte[] headers = ("POST /api/user/create HTTP/1.1\r\n"
+				+ "Host: " + url.getHost() + ":" + port + "\r\n"
+				+ "Content-Type: application/json\r\n"
+				+ "Content-Length: " + DECLARED_BODY_LENGTH + "\r\n"
+				+ "\r\n"
+				+ "{").getBytes(StandardCharsets.US_ASCII);
+		try {
+			for(int i = 0; i < count; i++) {
+				Socket socket = new Socket(url.getHost(), port);
+				socket.getOutputStream().write(headers);
+				socket.getOutputStream().flush();
+				sockets.add(socket);
+			}
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+		trickler.scheduleWithFixedDelay(this::trickle, TRICKLE_SECONDS, TRICKLE_SECONDS, TimeUnit.SECONDS);
+		logger.info("Holding {} connections open with unfinished requests", count);
+	}
+
+	private synchronized void trickle() {
+		for(Iterator<Socket> it = sockets.iterator(); it.hasNext(); ) {
+			Socket socket = it.next();
+			try {
+				OutputStream out = socket.getOutputStream();
+				out.write(' ');
+				out.flush();
+			} catch (IOException e) {
+				logger.warn("An idle connection was closed by the server: {}", e.getMessage());
+				closeQuietly(socket);
+				it.remove();
+			}
+		}
+	}
+
+	synchronized int open() {
+		return sockets.size();
+	}
+
+	@Override
+	public synchronized void close() {
+		trickler.shutdownNow();
+		for(Socket socket : sockets) {
+			closeQuietly(socket);
+		}
+		sockets.clear();
+	}
+
+	private static void closeQuietly(Socket socket) {
+		try {
+			socket.close();
+		} catch (IOException ignored) {
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.demo.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms and error counts per action, shared by all virtual users.
+ * Latencies are recorded in microseconds with three significant digits.
+ */
+class LatencyRecorder {
+
+	private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	private final Map<Action, Histogram> histograms = new EnumMap<>(Action.class);
+	private final Map<Action, LongAdder> errors = new EnumMap<>(Action.class);
+
+	LatencyRecorder() {
+		for(Action action : Action.values()) {
+			histograms.put(action, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+			errors.put(action, new LongAdder());
+		}
+	}
+
+	void record(Action action, long latencyNanos, boolean success) {
+		long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS);
+		histograms.get(action).recordValue(micros);
+		if(!success) {
+			errors.get(action).increment();
+		}
+	}
+
+	Histogram histogram(Action action) {
+		return histograms.get(action);
+	}
+
+	long errors(Action action) {
+		return errors.get(action).sum();
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.demo.loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Runs one scenario against a server: loads the item catalog once, starts the virtual
+ * users and waits for them to finish.
+ */
+class LoadTest {
+
+	private static final String PASSWORD = "loadTestPassword";
+
+	private final Logger logger = LogManager.getLogger(LoadTest.class);
+
+	private final Scenario scenario;
+	private final String baseUrl;
+	private final ApiClient client;
+	private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+	LoadTest(Scenario scenario, String baseUrl) {
+		this.scenario = scenario;
+		this.baseUrl = baseUrl;
+		this.client = new ApiClient(baseUrl);
+	}
+
+	LoadTestReport run() throws Exception {
+		JsonNode catalog = loadCatalog();
+		List<Long> itemIds = new ArrayList<>();
+		Set<String> searchTerms = new LinkedHashSet<>();
+		for(JsonNode item : catalog) {
+			itemIds.add(item.get("id").asLong());
+			for(String term : item.get("name").asText().toLowerCase().split("\\W+")) {
+				if(!term.isEmpty()) {
+					searchTerms.add(term);
+				}
+			}
+		}
+		if(itemIds.isEmpty()) {
+			throw new IllegalStateException("The item catalog is empty, nothing to load test against");
+		}
+
+		LatencyRecorder recorder = new LatencyRecorder();
+		VirtualUser.WeightedActions actions = new VirtualUser.WeightedActions(scenario.getWeights());
+		try(IdleConnections idle = new IdleConnections(baseUrl, scenario.getIdleConnections())) {
+			long start = System.nanoTime();
+			long measureFrom = start + TimeUnit.SECONDS.toNanos(scenario.getWarmupSeconds());
+			long end = measureFrom + TimeUnit.SECONDS.toNanos(scenario.getDurationSeconds());
+
+			logger.info("Running scenario {} with {} users for {}s after {}s warmup", scenario.getName(),
+					scenario.getUsers(), scenario.getDurationSeconds(), scenario.getWarmupSeconds());
+			ExecutorService executor = Executors.newFixedThreadPool(scenario.getUsers());
+			List<Future<?>> users = new ArrayList<>();
+			for(int i = 0; i < scenario.getUsers(); i++) {
+				users.add(executor.submit(new VirtualUser(client, recorder, actions, itemIds,
+						new ArrayList<>(searchTerms), "loadtest-" + runId + "-" + i, measureFrom, end,
+						scenario.getRatePerUser(), i)));
+			}
+			try {
+				for(Future<?> user : users) {
+					user.get();
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+			double measuredSeconds = (Math.max(System.nanoTime(), end) - measureFrom) / 1e9;
+			if(idle.open() < scenario.getIdleConnections()) {
+				logger.warn("Only {} of {} idle connections survived the run", idle.open(), scenario.getIdleConnections());
+			}
+			return new LoadTestReport(scenario, recorder, measuredSeconds);
+		}
+	}
+
+	private JsonNode loadCatalog() throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		String username = "loadtest-" + runId + "-setup";
+		ObjectNode credentials = mapper.createObjectNode()
+				.put("username", username)
+				.put("password", PASSWORD);
+		String login = credentials.toString();
+		ApiClient.Response signUp = client.post("/api/user/create",
+				credentials.put("confirmPassword", PASSWORD).toString(), null);
+		ApiClient.Response loggedIn = client.post("/login", login, null);
+		if(!signUp.isSuccess() || !loggedIn.isSuccess() || loggedIn.authorization == null) {
+			throw new IllegalStateException("Could not sign up and log in the setup user (sign-up "
+					+ signUp.status + ", login " + loggedIn.status + ")");
+		}
+		ApiClient.Response items = client.get("/api/item", loggedIn.authorization);
+		if(!items.isSuccess()) {
+			throw new IllegalStateException("Could not load the item catalog: " + items.status);
+		}
+		return mapper.readTree(items.body);
+	}
+}
@@ -0,0 +1,101 @@
+package com.example.demo.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Per-endpoint throughput and latency percentiles of a finished run. The JSON form also
+ * carries each compressed HdrHistogram, so runs can be merged or re-analysed later.
+ */
+class LoadTestReport {
+
+	private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+	private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99.9"};
+
+	private final Scenario scenario;
+	private final LatencyRecorder recorder;
+	private final double measuredSeconds;
+
+	LoadTestReport(Scenario scenario, LatencyRecorder recorder, double measuredSeconds) {
+		this.scenario = scenario;
+		this.recorder = recorder;
+		this.measuredSeconds = measuredSeconds;
+	}
+
+	void print(PrintStream out) {
+		out.printf("%nScenario %s: %d users, %d idle connections, %.1fs measured%n", scenario.getName(), scenario.getUsers(),
+				scenario.getIdleConnections(), measuredSeconds);
+		out.printf("%-38s %8s %7s %9s %9s %9s %9s %9s %9s%n", "endpoint", "count", "errors", "req/s",
+				"p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+		for(Action action : Action.values()) {
+			Histogram histogram = recorder.histogram(action);
+			if(histogram.getTotalCount() == 0) {
+				continue;
+			}
+			out.printf("%-38s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", action.getEndpoint(),
+					histogram.getTotalCount(), recorder.errors(action), throughput(action, histogram),
+					millis(histogram.getValueAtPercentile(PERCENTILES[0])), millis(histogram.getValueAtPercentile(PERCENTILES[1])),
+					millis(histogram.getValueAtPercentile(PERCENTILES[2])), millis(histogram.getValueAtPercentile(PERCENTILES[3])),
+					millis(histogram.getMaxValue()));
+		}
+	}
+
+	void write(Path path) throws IOException {
+		Map<String, Object> endpoints = new LinkedHashMap<>();
+		for(Action action : Action.values()) {
+			Histogram histogram = recorder.histogram(action);
+			if(histogram.getTotalCount() == 0) {
+				continue;
+			}
+			Map<String, Object> stats = new LinkedHashMap<>();
+			stats.put("count", histogram.getTotalCount());
+			stats.put("errors", recorder.errors(action));
+			stats.put("throughputPerSecond", throughput(action, histogram));
+			Map<String, Double> percentiles = new LinkedHashMap<>();
+			for(int i = 0; i < PERCENTILES.length; i++) {
+				percentiles.put(PERCENTILE_NAMES[i], millis(histogram.getValueAtPercentile(PERCENTILES[i])));
+			}
+			percentiles.put("max", millis(histogram.getMaxValue()));
+			stats.put("latencyMillis", percentiles);
+			stats.put("histogram", encode(histogram));
+			endpoints.put(action.getEndpoint(), stats);
+		}
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("scenario", scenario.getName());
+		report.put("users", scenario.getUsers());
+		report.put("ratePerUser", scenario.getRatePerUser());
+		report.put("idleConnections", scenario.getIdleConnections());
+		report.put("measuredSeconds", measuredSeconds);
+		report.put("endpoints", endpoints);
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+	}
+
+	private double throughput(Action action, Histogram histogram) {
+		// sign-ups and first logins happen once per user, not over the measured window
+		if(action == Action.SIGN_UP) {
+			return 0;
+		}
+		return histogram.getTotalCount() / measuredSeconds;
+	}
+
+	private static double millis(long micros) {
+		return micros / 1000.0;
+	}
+
+	private static String encode(Histogram histogram) {
+		ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+		int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+		return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+	}
+}
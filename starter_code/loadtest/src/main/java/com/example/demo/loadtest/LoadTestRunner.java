@@ -0,0 +1,46 @@
+package com.example.demo.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.demo.EcommenceApplication;
+
+/**
+ * Entry point: {@code java -jar loadtest.jar [scenario] [result.json] [baseUrl]}. The
+ * scenario is a file path or a {@code classpath:} resource and defaults to the bundled
+ * mixed workload. A base URL given here overrides the scenario's, so one scenario can be
+ * run against several servers.
+ */
+public class LoadTestRunner {
+
+	private static final String DEFAULT_SCENARIO = "classpath:scenarios/mixed.json";
+	private static final String DEFAULT_RESULT = "loadtest-result.json";
+
+	public static void main(String[] args) throws Exception {
+		Scenario scenario = Scenario.load(args.length > 0 ? args[0] : DEFAULT_SCENARIO);
+		Path result = Paths.get(args.length > 1 ? args[1] : DEFAULT_RESULT);
+
+		ConfigurableApplicationContext context = null;
+		String baseUrl = args.length > 2 ? args[2] : scenario.getBaseUrl();
+		if(baseUrl == null) {
+			context = new SpringApplicationBuilder(EcommenceApplication.class)
+					.properties("server.port=0")
+					.run();
+			baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+		}
+		try {
+			LoadTestReport report = new LoadTest(scenario, baseUrl).run();
+			report.print(System.out);
+			report.write(result);
+			System.out.println("Results written to " + result.toAbsolutePath());
+		} finally {
+			if(context != null) {
+				context.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.example.demo.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A load test description, read from JSON. Each of {@code users} virtual users signs up,
+ * logs in and then picks actions from {@code mix} by weight until {@code durationSeconds}
+ * have passed after a {@code warmupSeconds} warmup. Only actions started after the warmup
+ * are recorded, except the one-off sign-up and first login of each user.
+ * <p>
+ * With {@code ratePerUser} at 0 every user sends its next request as soon as the previous
+ * one completes. Above 0 each user follows a fixed schedule of that many requests per
+ * second and latency is measured from the scheduled start, so a stalled server shows up
+ * in the percentiles instead of silently lowering the request rate.
+ * <p>
+ * {@code baseUrl} points the test at a running server; without it the application is
+ * booted in-process on a random port.
+ * <p>
+ * {@code idleConnections} holds that many extra connections open for the whole run, each
+ * with a request that never finishes (see {@link IdleConnections}), to compare servers
+ * that spend a thread per in-flight request with ones that do not.
+ */
+public class Scenario {
+
+	private static final String CLASSPATH_PREFIX = "classpath:";
+
+	private String name = "unnamed";
+	private String baseUrl;
+	private int users = 1;
+	private int warmupSeconds;
+	private int durationSeconds = 30;
+	private double ratePerUser;
+	private int idleConnections;
+	private Map<String, Integer> mix = new LinkedHashMap<>();
+
+	public static Scenario load(String location) throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		Scenario scenario;
+		if(location.startsWith(CLASSPATH_PREFIX)) {
+			String resource = location.substring(CLASSPATH_PREFIX.length());
+			try(InputStream in = Scenario.class.getClassLoader().getResourceAsStream(resource)) {
+				if(in == null) {
+					throw new IOException("Scenario not found on the classpath: " + resource);
+				}
+				scenario = mapper.readValue(in, Scenario.class);
+			}
+		} else {
+			scenario = mapper.readValue(Files.newInputStream(Paths.get(location)), Scenario.class);
+		}
+		scenario.validate();
+		return scenario;
+	}
+
+	private void validate() {
+		if(users < 1 || durationSeconds < 1 || warmupSeconds < 0 || ratePerUser < 0 || idleConnections < 0) {
+			throw new IllegalArgumentException("Scenario " + name
+					+ " needs users >= 1, durationSeconds >= 1, warmupSeconds >= 0, ratePerUser >= 0 and idleConnections >= 0");
+		}
+		if(getWeights().isEmpty()) {
+			throw new IllegalArgumentException("Scenario " + name + " has no actions with a positive weight");
+		}
+	}
+
+	/**
+	 * The mix keyed by action, leaving out actions with no weight.
+	 */
+	public Map<Action, Integer> getWeights() {
+		Map<Action, Integer> weights = new EnumMap<>(Action.class);
+		for(Map.Entry<String, Integer> entry : mix.entrySet()) {
+			Action action = Action.fromKey(entry.getKey());
+			if(action == Action.SIGN_UP) {
+				throw new IllegalArgumentException("signUp runs once per user and cannot be part of the mix");
+			}
+			if(entry.getValue() != null && entry.getValue() > 0) {
+				weights.put(action, entry.getValue());
+			}
+		}
+		return weights;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getBaseUrl() {
+		return baseUrl;
+	}
+
+	public void setBaseUrl(String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	public int getUsers() {
+		return users;
+	}
+
+	public void setUsers(int users) {
+		this.users = users;
+	}
+
+	public int getWarmupSeconds() {
+		return warmupSeconds;
+	}
+
+	public void setWarmupSeconds(int warmupSeconds) {
+		this.warmupSeconds = warmupSeconds;
+	}
+
+	public int getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	public void setDurationSeconds(int durationSeconds) {
+		this.durationSeconds = durationSeconds;
+	}
+
+	public double getRatePerUser() {
+		return ratePerUser;
+	}
+
+	public void setRatePerUser(double ratePerUser) {
+		this.ratePerUser = ratePerUser;
+	}
+
+	public int getIdleConnections() {
+		return idleConnections;
+	}
+
+	public void setIdleConnections(int idleConnections) {
+		this.idleConnections = idleConnections;
+	}
+
+	public Map<String, Integer> getMix() {
+		return mix;
+	}
+
+	public void setMix(Map<String, Integer> mix) {
+		this.mix = mix;
+	}
+}
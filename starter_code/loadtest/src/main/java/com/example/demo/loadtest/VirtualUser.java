@@ -0,0 +1,208 @@
+package com.example.demo.loadtest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * One simulated shopper: signs up, logs in, then works through the scenario mix until the
+ * test ends.
+ */
+class VirtualUser implements Runnable {
+
+	private static final String PASSWORD = "loadTestPassword";
+	private static final int MODIFY_CART_CHANGES = 5;
+
+	private final Logger logger = LogManager.getLogger(VirtualUser.class);
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final ApiClient client;
+	private final LatencyRecorder recorder;
+	private final WeightedActions actions;
+	private final List<Long> itemIds;
+	private final List<String> searchTerms;
+	private final String username;
+	private final long measureFromNanos;
+	private final long endNanos;
+	private final long intervalNanos;
+	private final Random random;
+
+	private String token;
+	private int accountsCreated;
+
+	VirtualUser(ApiClient client, LatencyRecorder recorder, WeightedActions actions, List<Long> itemIds,
+			List<String> searchTerms, String username, long measureFromNanos, long endNanos,
+			double ratePerUser, long seed) {
+		this.client = client;
+		this.recorder = recorder;
+		this.actions = actions;
+		this.itemIds = itemIds;
+		this.searchTerms = searchTerms;
+		this.username = username;
+		this.measureFromNanos = measureFromNanos;
+		this.endNanos = endNanos;
+		this.intervalNanos = ratePerUser > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerUser) : 0;
+		this.random = new Random(seed);
+	}
+
+	@Override
+	public void run() {
+		if(!timed(Action.SIGN_UP, System.nanoTime(), true) || !timed(Action.LOGIN, System.nanoTime(), true)) {
+			logger.error("Virtual user {} could not sign up and log in, stopping it", username);
+			return;
+		}
+		long next = System.nanoTime();
+		while(true) {
+			long intendedStart;
+			if(intervalNanos > 0) {
+				intendedStart = next;
+				next += intervalNanos;
+				// a server that fell behind the schedule does not get to finish the backlog
+				if(intendedStart >= endNanos || System.nanoTime() >= endNanos) {
+					return;
+				}
+				long wait = intendedStart - System.nanoTime();
+				if(wait > 0) {
+					LockSupport.parkNanos(wait);
+				}
+			} else {
+				intendedStart = System.nanoTime();
+				if(intendedStart >= endNanos) {
+					return;
+				}
+			}
+			timed(actions.pick(random), intendedStart, intendedStart >= measureFromNanos);
+		}
+	}
+
+	private boolean timed(Action action, long intendedStart, boolean record) {
+		boolean success;
+		try {
+			success = execute(action);
+		} catch (IOException e) {
+			logger.debug("{} failed for {}: {}", action.getEndpoint(), username, e.getMessage());
+			success = false;
+		}
+		if(record) {
+			recorder.record(action, System.nanoTime() - intendedStart, success);
+		}
+		return success;
+	}
+
+	private boolean execute(Action action) throws IOException {
+		switch(action) {
+		case SIGN_UP:
+			return client.post("/api/user/create", json("username", username, "password", PASSWORD,
+					"confirmPassword", PASSWORD), null).isSuccess();
+		case CREATE_USER:
+			String account = username + "-" + ++accountsCreated;
+			return client.post("/api/user/create", json("username", account, "password", PASSWORD,
+					"confirmPassword", PASSWORD), null).isSuccess();
+		case LOGIN:
+			ApiClient.Response login = client.post("/login", json("username", username, "password", PASSWORD), null);
+			if(login.isSuccess() && login.authorization != null) {
+				token = login.authorization;
+				return true;
+			}
+			return false;
+		case BROWSE_ITEMS:
+			return client.get("/api/item", token).isSuccess();
+		case ITEM_PAGE:
+			return client.get("/api/item/page?limit=20", token).isSuccess();
+		case SEARCH_ITEMS:
+			return client.get("/api/item/search?q=" + pick(searchTerms), token).isSuccess();
+		case GET_ITEM:
+			return client.get("/api/item/" + pick(itemIds), token).isSuccess();
+		case ADD_TO_CART:
+			return client.post("/api/cart/addToCart", cartRequest(1 + random.nextInt(3)), token).isSuccess();
+		case REMOVE_FROM_CART:
+			return client.post("/api/cart/removeFromCart", cartRequest(1), token).isSuccess();
+		case MODIFY_CART:
+			return client.post("/api/cart/modifyCart", batchCartRequest(MODIFY_CART_CHANGES), token).isSuccess();
+		case SUBMIT_ORDER:
+			return client.post("/api/order/submit/" + username, null, token).isSuccess();
+		case ORDER_HISTORY:
+			return client.get("/api/order/history/" + username + "/page", token).isSuccess();
+		default:
+			throw new IllegalStateException("Unhandled action " + action);
+		}
+	}
+
+	private String cartRequest(int quantity) throws IOException {
+		ObjectNode request = mapper.createObjectNode();
+		request.put("username", username);
+		request.put("itemId", pick(itemIds));
+		request.put("quantity", quantity);
+		return mapper.writeValueAsString(request);
+	}
+
+	/**
+	 * A cart restore: drops one item and sets several others, as a client does on launch.
+	 */
+	private String batchCartRequest(int changes) throws IOException {
+		ObjectNode request = mapper.createObjectNode();
+		request.put("username", username);
+		request.putArray("removeItemIds").add(pick(itemIds));
+		ArrayNode deltas = request.putArray("changes");
+		for(int i = 0; i < changes; i++) {
+			deltas.addObject()
+					.put("itemId", pick(itemIds))
+					.put("quantity", 1 + random.nextInt(3));
+		}
+		return mapper.writeValueAsString(request);
+	}
+
+	private String json(String... keysAndValues) throws IOException {
+		ObjectNode node = mapper.createObjectNode();
+		for(int i = 0; i < keysAndValues.length; i += 2) {
+			node.put(keysAndValues[i], keysAndValues[i + 1]);
+		}
+		return mapper.writeValueAsString(node);
+	}
+
+	private <T> T pick(List<T> values) {
+		return values.get(random.nextInt(values.size()));
+	}
+
+	/**
+	 * Cumulative weights for picking an action in proportion to its share of the mix.
+	 */
+	static final class WeightedActions {
+		private final Action[] actions;
+		private final int[] cumulative;
+		private final int total;
+
+		WeightedActions(Map<Action, Integer> weights) {
+			actions = new Action[weights.size()];
+			cumulative = new int[weights.size()];
+			int sum = 0;
+			int i = 0;
+			for(Map.Entry<Action, Integer> entry : weights.entrySet()) {
+				sum += entry.getValue();
+				actions[i] = entry.getKey();
+				cumulative[i++] = sum;
+			}
+			total = sum;
+		}
+
+		Action pick(Random random) {
+			int roll = random.nextInt(total);
+			for(int i = 0; i < cumulative.length; i++) {
+				if(roll < cumulative[i]) {
+					return actions[i];
+				}
+			}
+			return actions[actions.length - 1];
+		}
+	}
+}
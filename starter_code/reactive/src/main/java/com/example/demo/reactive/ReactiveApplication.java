@@ -0,0 +1,24 @@
+package com.example.demo.reactive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * The WebFlux variant of the API: the same {@code /api/*} endpoints served on Netty,
+ * with R2DBC for the database, so a request waiting on I/O holds no thread.
+ */
+@SpringBootApplication
+public class ReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveApplication.class, args);
+	}
+
+	@Bean
+	public BCryptPasswordEncoder bCryptPasswordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+		return new BCryptPasswordEncoder(strength);
+	}
+}
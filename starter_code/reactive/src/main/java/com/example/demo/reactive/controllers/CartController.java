@@ -0,0 +1,109 @@
+package com.example.demo.reactive.controllers;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.reactive.model.Cart;
+import com.example.demo.reactive.model.Item;
+import com.example.demo.reactive.model.requests.CartItemChange;
+import com.example.demo.reactive.model.requests.ModifyCartBatchRequest;
+import com.example.demo.reactive.model.requests.ModifyCartRequest;
+import com.example.demo.reactive.model.responses.CartResponse;
+import com.example.demo.reactive.repositories.ItemRepository;
+import com.example.demo.reactive.repositories.UserRepository;
+import com.example.demo.reactive.services.CartService;
+
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/cart")
+public class CartController {
+
+	static final int MAX_BATCH_CHANGES = 200;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private CartService cartService;
+
+	@PostMapping("/addToCart")
+	public Mono<ResponseEntity<CartResponse>> addTocart(@RequestBody ModifyCartRequest request) {
+		return userRepository.findByUsername(request.getUsername())
+				.flatMap(user -> itemRepository.findById(request.getItemId())
+						.flatMap(item -> cartService.update(user, cart -> cart.addItem(item, request.getQuantity()))))
+				.map(cart -> ResponseEntity.ok(new CartResponse(cart)))
+				.defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+	}
+
+	@PostMapping("/removeFromCart")
+	public Mono<ResponseEntity<CartResponse>> removeFromcart(@RequestBody ModifyCartRequest request) {
+		return userRepository.findByUsername(request.getUsername())
+				.flatMap(user -> itemRepository.findById(request.getItemId())
+						.flatMap(item -> cartService.update(user, cart -> cart.removeItem(item, request.getQuantity()))))
+				.map(cart -> ResponseEntity.ok(new CartResponse(cart)))
+				.defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+	}
+
+	/**
+	 * Applies many changes to the cart in one transaction. Whole-line removals are
+	 * applied before the quantity deltas, so removing an item and adding it back sets
+	 * its quantity. If any of the items does not exist nothing is changed.
+	 */
+	@PostMapping("/modifyCart")
+	public Mono<ResponseEntity<CartResponse>> modifyCart(@RequestBody ModifyCartBatchRequest request) {
+		int size = (request.getChanges() == null ? 0 : request.getChanges().size())
+				+ (request.getRemoveItemIds() == null ? 0 : request.getRemoveItemIds().size());
+		if(size == 0 || size > MAX_BATCH_CHANGES) {
+			return Mono.just(ResponseEntity.badRequest().build());
+		}
+		if(request.getRemoveItemIds() != null && request.getRemoveItemIds().contains(null)) {
+			return Mono.just(ResponseEntity.badRequest().build());
+		}
+		Set<Long> itemIds = new HashSet<>();
+		if(request.getChanges() != null) {
+			for(CartItemChange change : request.getChanges()) {
+				if(change == null || change.getItemId() == null) {
+					return Mono.just(ResponseEntity.badRequest().build());
+				}
+				itemIds.add(change.getItemId());
+			}
+		}
+		return userRepository.findByUsername(request.getUsername())
+				.flatMap(user -> itemRepository.findAllById(itemIds)
+						.collectMap(Item::getId, Function.identity())
+						.filter(items -> items.size() == itemIds.size())
+						.flatMap(items -> cartService.update(user, cart -> apply(cart, request, items))))
+				.map(cart -> ResponseEntity.ok(new CartResponse(cart)))
+				.defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+	}
+
+	private static void apply(Cart cart, ModifyCartBatchRequest request, Map<Long, Item> items) {
+		if(request.getRemoveItemIds() != null) {
+			request.getRemoveItemIds().forEach(cart::removeLine);
+		}
+		if(request.getChanges() != null) {
+			for(CartItemChange change : request.getChanges()) {
+				Item item = items.get(change.getItemId());
+				if(change.getQuantity() > 0) {
+					cart.addItem(item, change.getQuantity());
+				} else {
+					cart.removeItem(item, -change.getQuantity());
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package com.example.demo.reactive.controllers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursors: the id of the last row of a page, base64url encoded.
+ */
+final class Cursors {
+
+	private Cursors() {
+	}
+
+	static String encode(Long id) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return the id the cursor points after, or {@code null} if it is malformed
+	 */
+	static Long decode(String cursor) {
+		try {
+			return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+}
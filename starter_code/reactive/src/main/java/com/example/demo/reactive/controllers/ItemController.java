@@ -0,0 +1,64 @@
+package com.example.demo.reactive.controllers;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.reactive.model.Item;
+import com.example.demo.reactive.model.responses.ItemPage;
+import com.example.demo.reactive.repositories.ItemRepository;
+
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/item")
+public class ItemController {
+
+	static final int DEFAULT_PAGE_SIZE = 50;
+	static final int MAX_PAGE_SIZE = 200;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@GetMapping
+	public Mono<ResponseEntity<List<Item>>> getItems() {
+		return itemRepository.findAll().collectList().map(ResponseEntity::ok);
+	}
+
+	@GetMapping("/page")
+	public Mono<ResponseEntity<ItemPage>> getItemPage(@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+		Long afterId = cursor == null ? Long.valueOf(0L) : Cursors.decode(cursor);
+		if(afterId == null || limit < 1) {
+			return Mono.just(ResponseEntity.badRequest().build());
+		}
+		int size = Math.min(limit, MAX_PAGE_SIZE);
+		return itemRepository.findByIdGreaterThan(afterId, size + 1).collectList().map(items -> {
+			String nextCursor = null;
+			if(items.size() > size) {
+				items = items.subList(0, size);
+				nextCursor = Cursors.encode(items.get(size - 1).getId());
+			}
+			return ResponseEntity.ok(new ItemPage(items, nextCursor));
+		});
+	}
+
+	@GetMapping("/{id}")
+	public Mono<ResponseEntity<Item>> getItemById(@PathVariable Long id) {
+		return itemRepository.findById(id)
+				.map(ResponseEntity::ok)
+				.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	@GetMapping("/name/{name}")
+	public Mono<ResponseEntity<List<Item>>> getItemsByName(@PathVariable String name) {
+		return itemRepository.findByName(name).collectList()
+				.map(items -> items.isEmpty() ? ResponseEntity.notFound().<List<Item>>build() : ResponseEntity.ok(items));
+	}
+}
@@ -0,0 +1,91 @@
+package com.example.demo.reactive.controllers;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.reactive.model.responses.OrderPage;
+import com.example.demo.reactive.model.responses.OrderResponse;
+import com.example.demo.reactive.repositories.OrderRepository;
+import com.example.demo.reactive.repositories.UserRepository;
+import com.example.demo.reactive.services.OrderService;
+
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/order")
+public class OrderController {
+
+	static final int DEFAULT_PAGE_SIZE = 20;
+	static final int MAX_PAGE_SIZE = 100;
+
+	private final Logger logger = LogManager.getLogger(OrderController.class);
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderService orderService;
+
+	@PostMapping("/submit/{username}")
+	public Mono<ResponseEntity<OrderResponse>> submit(@PathVariable String username) {
+		return userRepository.findByUsername(username)
+				.flatMap(orderService::submit)
+				.map(order -> {
+					logger.info("Order for user: {} successfully submitted!", username);
+					return ResponseEntity.ok(new OrderResponse(order));
+				})
+				.switchIfEmpty(Mono.fromSupplier(() -> {
+					logger.error("User with username: {} not found!", username);
+					return ResponseEntity.notFound().build();
+				}));
+	}
+
+	@GetMapping("/history/{username}")
+	public Mono<ResponseEntity<List<OrderResponse>>> getOrdersForUser(@PathVariable String username) {
+		return userRepository.findByUsername(username)
+				.flatMap(user -> orderRepository.findByUser(user).map(OrderResponse::new).collectList())
+				.map(ResponseEntity::ok)
+				.switchIfEmpty(Mono.fromSupplier(() -> {
+					logger.error("User with username: {} not found!", username);
+					return ResponseEntity.notFound().build();
+				}));
+	}
+
+	@GetMapping("/history/{username}/page")
+	public Mono<ResponseEntity<OrderPage>> getOrderPageForUser(@PathVariable String username,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+		Long afterId = cursor == null ? Long.valueOf(0L) : Cursors.decode(cursor);
+		if(afterId == null || limit < 1) {
+			return Mono.just(ResponseEntity.badRequest().build());
+		}
+		int size = Math.min(limit, MAX_PAGE_SIZE);
+		return userRepository.findByUsername(username)
+				.flatMap(user -> orderRepository.findIdsByUser(user, afterId, size + 1).collectList()
+						.flatMap(ids -> {
+							String nextCursor = ids.size() > size ? Cursors.encode(ids.get(size - 1)) : null;
+							List<Long> page = ids.size() > size ? ids.subList(0, size) : ids;
+							return orderRepository.findWithLinesByIdIn(user, page).map(OrderResponse::new).collectList()
+									.defaultIfEmpty(Collections.emptyList())
+									.map(orders -> ResponseEntity.ok(new OrderPage(orders, nextCursor)));
+						}))
+				.switchIfEmpty(Mono.fromSupplier(() -> {
+					logger.error("User with username: {} not found!", username);
+					return ResponseEntity.notFound().build();
+				}));
+	}
+}
@@ -0,0 +1,74 @@
+package com.example.demo.reactive.controllers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.reactive.model.requests.CreateUserRequest;
+import com.example.demo.reactive.model.responses.UserResponse;
+import com.example.demo.reactive.repositories.CartRepository;
+import com.example.demo.reactive.repositories.UserRepository;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@RestController
+@RequestMapping("/api/user")
+public class UserController {
+
+	private final Logger logger = LogManager.getLogger(UserController.class);
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	@Autowired
+	private BCryptPasswordEncoder bCryptPasswordEncoder;
+
+	@Autowired
+	private TransactionalOperator transactionalOperator;
+
+	@GetMapping("/id/{id}")
+	public Mono<ResponseEntity<UserResponse>> findById(@PathVariable Long id) {
+		return userRepository.findById(id)
+				.map(user -> ResponseEntity.ok(new UserResponse(user)))
+				.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	@GetMapping("/{username}")
+	public Mono<ResponseEntity<UserResponse>> findByUserName(@PathVariable String username) {
+		return userRepository.findByUsername(username)
+				.map(user -> ResponseEntity.ok(new UserResponse(user)))
+				.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	@PostMapping("/create")
+	public Mono<ResponseEntity<UserResponse>> createUser(@RequestBody CreateUserRequest createUserRequest) {
+		String password = createUserRequest.getPassword();
+		if(password == null || password.length() < 7 || !password.equals(createUserRequest.getConfirmPassword())) {
+			logger.error("Invalid combination of password and confirm password for User {}", createUserRequest.getUsername());
+			return Mono.just(ResponseEntity.badRequest().build());
+		}
+		// BCrypt is CPU bound, so it runs off the event loop
+		return Mono.fromCallable(() -> bCryptPasswordEncoder.encode(password))
+				.subscribeOn(Schedulers.boundedElastic())
+				.flatMap(hash -> cartRepository.insert()
+						.flatMap(cartId -> userRepository.insert(createUserRequest.getUsername(), hash, cartId))
+						.as(transactionalOperator::transactional))
+				.map(user -> {
+					logger.info("User {} successfully registered!", user.getUsername());
+					return ResponseEntity.ok(new UserResponse(user));
+				});
+	}
+}
@@ -0,0 +1,129 @@
+package com.example.demo.reactive.model;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A cart and its lines, keyed by item id. The mutations follow the application's
+ * {@code Cart}; {@link #loadedLines()} keeps the lines as the cart was read, so only the
+ * lines whose quantity or unit price changed are written back.
+ */
+public class Cart {
+
+	@JsonProperty
+	private Long id;
+
+	@JsonProperty
+	private User user;
+
+	@JsonProperty
+	private BigDecimal total;
+
+	@JsonIgnore
+	private long version;
+
+	private final Map<Long, CartLine> lines = new LinkedHashMap<>();
+
+	private final Map<Long, CartLine> loadedLines = new HashMap<>();
+
+	public Cart(Long id, BigDecimal total, long version) {
+		this.id = id;
+		this.total = total;
+		this.version = version;
+	}
+
+	public void load(List<CartLine> loaded) {
+		for(CartLine line : loaded) {
+			lines.put(line.getItemId(), line);
+			loadedLines.put(line.getItemId(), new CartLine(line.getItemId(), line.getQuantity(), line.getUnitPrice()));
+		}
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public User getUser() {
+		return user;
+	}
+
+	public void setUser(User user) {
+		this.user = user;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	@JsonProperty
+	public Collection<CartLine> getLines() {
+		return lines.values();
+	}
+
+	public CartLine getLine(Long itemId) {
+		return lines.get(itemId);
+	}
+
+	@JsonIgnore
+	public Map<Long, CartLine> loadedLines() {
+		return loadedLines;
+	}
+
+	public void addItem(Item item, int quantity) {
+		if(quantity <= 0) {
+			return;
+		}
+		CartLine line = lines.get(item.getId());
+		if(line == null) {
+			line = new CartLine(item.getId(), 0, item.getPrice());
+			lines.put(item.getId(), line);
+		}
+		line.setQuantity(line.getQuantity() + quantity);
+		if(total == null) {
+			total = new BigDecimal(0);
+		}
+		total = total.add(line.getUnitPrice().multiply(BigDecimal.valueOf(quantity)));
+	}
+
+	public void removeItem(Item item, int quantity) {
+		CartLine line = lines.get(item.getId());
+		if(line == null || quantity <= 0) {
+			return;
+		}
+		int removed = Math.min(quantity, line.getQuantity());
+		if(removed == line.getQuantity()) {
+			lines.remove(item.getId());
+		} else {
+			line.setQuantity(line.getQuantity() - removed);
+		}
+		if(total == null) {
+			total = new BigDecimal(0);
+		}
+		total = total.subtract(line.getUnitPrice().multiply(BigDecimal.valueOf(removed)));
+	}
+
+	/**
+	 * Removes the item's line whatever its quantity.
+	 */
+	public void removeLine(Long itemId) {
+		CartLine line = lines.remove(itemId);
+		if(line == null) {
+			return;
+		}
+		if(total == null) {
+			total = new BigDecimal(0);
+		}
+		total = total.subtract(line.getSubtotal());
+	}
+}
@@ -0,0 +1,44 @@
+package com.example.demo.reactive.model;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class CartLine {
+
+	@JsonProperty
+	private Long itemId;
+
+	@JsonProperty
+	private int quantity;
+
+	@JsonProperty
+	private BigDecimal unitPrice;
+
+	public CartLine(Long itemId, int quantity, BigDecimal unitPrice) {
+		this.itemId = itemId;
+		this.quantity = quantity;
+		this.unitPrice = unitPrice;
+	}
+
+	public Long getItemId() {
+		return itemId;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	void setQuantity(int quantity) {
+		this.quantity = quantity;
+	}
+
+	public BigDecimal getUnitPrice() {
+		return unitPrice;
+	}
+
+	@JsonProperty
+	public BigDecimal getSubtotal() {
+		return unitPrice.multiply(BigDecimal.valueOf(quantity));
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.demo.reactive.model;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class Item {
+
+	@JsonProperty
+	private Long id;
+
+	@JsonProperty
+	private String name;
+
+	@JsonProperty
+	private BigDecimal price;
+
+	@JsonProperty
+	private String description;
+
+	public Item(Long id, String name, BigDecimal price, String description) {
+		this.id = id;
+		this.name = name;
+		this.price = price;
+		this.description = description;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public BigDecimal getPrice() {
+		return price;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+}
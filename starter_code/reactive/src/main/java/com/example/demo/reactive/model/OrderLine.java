@@ -0,0 +1,48 @@
+package com.example.demo.reactive.model;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class OrderLine {
+
+	@JsonProperty
+	private Long itemId;
+
+	@JsonProperty
+	private String itemName;
+
+	@JsonProperty
+	private int quantity;
+
+	@JsonProperty
+	private BigDecimal unitPrice;
+
+	public OrderLine(Long itemId, String itemName, int quantity, BigDecimal unitPrice) {
+		this.itemId = itemId;
+		this.itemName = itemName;
+		this.quantity = quantity;
+		this.unitPrice = unitPrice;
+	}
+
+	public Long getItemId() {
+		return itemId;
+	}
+
+	public String getItemName() {
+		return itemName;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public BigDecimal getUnitPrice() {
+		return unitPrice;
+	}
+
+	@JsonProperty
+	public BigDecimal getSubtotal() {
+		return unitPrice.multiply(BigDecimal.valueOf(quantity));
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.demo.reactive.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class User {
+
+	@JsonProperty
+	private long id;
+
+	@JsonProperty
+	private String username;
+
+	@JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+	private String password;
+
+	@JsonIgnore
+	private Long cartId;
+
+	public User() {
+	}
+
+	public User(long id, String username, String password, Long cartId) {
+		this.id = id;
+		this.username = username;
+		this.password = password;
+		this.cartId = cartId;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public String getPassword() {
+		return password;
+	}
+
+	public Long getCartId() {
+		return cartId;
+	}
+}
@@ -0,0 +1,44 @@
+package com.example.demo.reactive.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class UserOrder {
+
+	@JsonProperty
+	private Long id;
+
+	@JsonProperty
+	private List<OrderLine> lines = new ArrayList<>();
+
+	@JsonProperty
+	private User user;
+
+	@JsonProperty
+	private BigDecimal total;
+
+	public UserOrder(Long id, User user, BigDecimal total) {
+		this.id = id;
+		this.user = user;
+		this.total = total;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public List<OrderLine> getLines() {
+		return lines;
+	}
+
+	public User getUser() {
+		return user;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+}
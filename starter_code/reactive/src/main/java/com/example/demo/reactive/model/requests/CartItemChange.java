@@ -0,0 +1,40 @@
+package com.example.demo.reactive.model.requests;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A quantity delta for one item of a {@link ModifyCartBatchRequest}: positive adds,
+ * negative removes.
+ */
+public class CartItemChange {
+
+	@JsonProperty
+	private Long itemId;
+
+	@JsonProperty
+	private int quantity;
+
+	public CartItemChange() {
+	}
+
+	public CartItemChange(Long itemId, int quantity) {
+		this.itemId = itemId;
+		this.quantity = quantity;
+	}
+
+	public Long getItemId() {
+		return itemId;
+	}
+
+	public void setItemId(Long itemId) {
+		this.itemId = itemId;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public void setQuantity(int quantity) {
+		this.quantity = quantity;
+	}
+}
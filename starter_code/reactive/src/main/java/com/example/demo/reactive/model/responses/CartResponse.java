@@ -0,0 +1,46 @@
+package com.example.demo.reactive.model.responses;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.demo.reactive.model.Cart;
+import com.example.demo.reactive.model.CartLine;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A cart as the cart endpoints return it. Only the cart's own columns and lines are
+ * copied; the owning user is left out, since the caller named them in the request.
+ */
+public class CartResponse {
+
+	@JsonProperty
+	private Long id;
+
+	@JsonProperty
+	private BigDecimal total;
+
+	@JsonProperty
+	private List<CartLineResponse> lines;
+
+	public CartResponse(Cart cart) {
+		this.id = cart.getId();
+		this.total = cart.getTotal();
+		this.lines = new ArrayList<>(cart.getLines().size());
+		for(CartLine line : cart.getLines()) {
+			lines.add(new CartLineResponse(line));
+		}
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	public List<CartLineResponse> getLines() {
+		return lines;
+	}
+}
@@ -0,0 +1,28 @@
+package com.example.demo.reactive.model.responses;
+
+import java.util.List;
+
+import com.example.demo.reactive.model.Item;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ItemPage {
+
+	@JsonProperty
+	private List<Item> items;
+
+	@JsonProperty
+	private String nextCursor;
+
+	public ItemPage(List<Item> items, String nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<Item> getItems() {
+		return items;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+}
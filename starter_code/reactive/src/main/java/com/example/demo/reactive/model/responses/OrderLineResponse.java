@@ -0,0 +1,52 @@
+package com.example.demo.reactive.model.responses;
+
+import java.math.BigDecimal;
+
+import com.example.demo.reactive.model.OrderLine;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class OrderLineResponse {
+
+	@JsonProperty
+	private Long itemId;
+
+	@JsonProperty
+	private String itemName;
+
+	@JsonProperty
+	private int quantity;
+
+	@JsonProperty
+	private BigDecimal unitPrice;
+
+	@JsonProperty
+	private BigDecimal subtotal;
+
+	public OrderLineResponse(OrderLine line) {
+		this.itemId = line.getItemId();
+		this.itemName = line.getItemName();
+		this.quantity = line.getQuantity();
+		this.unitPrice = line.getUnitPrice();
+		this.subtotal = line.getSubtotal();
+	}
+
+	public Long getItemId() {
+		return itemId;
+	}
+
+	public String getItemName() {
+		return itemName;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public BigDecimal getUnitPrice() {
+		return unitPrice;
+	}
+
+	public BigDecimal getSubtotal() {
+		return subtotal;
+	}
+}
@@ -0,0 +1,27 @@
+package com.example.demo.reactive.model.responses;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class OrderPage {
+
+	@JsonProperty
+	private List<OrderResponse> orders;
+
+	@JsonProperty
+	private String nextCursor;
+
+	public OrderPage(List<OrderResponse> orders, String nextCursor) {
+		this.orders = orders;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<OrderResponse> getOrders() {
+		return orders;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+}
@@ -0,0 +1,46 @@
+package com.example.demo.reactive.model.responses;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.demo.reactive.model.OrderLine;
+import com.example.demo.reactive.model.UserOrder;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * An order as the order endpoints return it. The user the order belongs to is left
+ * out, since every order endpoint is addressed by username.
+ */
+public class OrderResponse {
+
+	@JsonProperty
+	private Long id;
+
+	@JsonProperty
+	private BigDecimal total;
+
+	@JsonProperty
+	private List<OrderLineResponse> lines;
+
+	public OrderResponse(UserOrder order) {
+		this.id = order.getId();
+		this.total = order.getTotal();
+		this.lines = new ArrayList<>(order.getLines().size());
+		for(OrderLine line : order.getLines()) {
+			lines.add(new OrderLineResponse(line));
+		}
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	public List<OrderLineResponse> getLines() {
+		return lines;
+	}
+}
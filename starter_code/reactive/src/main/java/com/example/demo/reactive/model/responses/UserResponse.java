@@ -0,0 +1,26 @@
+package com.example.demo.reactive.model.responses;
+
+import com.example.demo.reactive.model.User;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class UserResponse {
+
+	@JsonProperty
+	private Long id;
+
+	@JsonProperty
+	private String username;
+
+	public UserResponse(User user) {
+		this.id = user.getId();
+		this.username = user.getUsername();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+}
@@ -0,0 +1,128 @@
+package com.example.demo.reactive.repositories;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.reactive.model.Cart;
+import com.example.demo.reactive.model.CartLine;
+import com.example.demo.reactive.model.OrderLine;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class CartRepository {
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@Autowired
+	private SequenceIds sequenceIds;
+
+	public Mono<Long> insert() {
+		return sequenceIds.next("cart_seq").flatMap(id -> databaseClient
+				.sql("insert into cart (id, version) values (:id, 0)")
+				.bind("id", id)
+				.then()
+				.thenReturn(id));
+	}
+
+	/**
+	 * Reads the cart with its lines and keeps the cart row locked until the transaction ends.
+	 */
+	public Mono<Cart> findByIdForUpdate(Long id) {
+		return databaseClient.sql("select id, total, version from cart where id = :id for update")
+				.bind("id", id)
+				.map(row -> new Cart(row.get("id", Long.class), row.get("total", BigDecimal.class),
+						row.get("version", Long.class)))
+				.one()
+				.flatMap(cart -> databaseClient
+						.sql("select item_id, quantity, unit_price from cart_line where cart_id = :cartId order by id")
+						.bind("cartId", id)
+						.map(row -> new CartLine(row.get("item_id", Long.class), row.get("quantity", Integer.class),
+								row.get("unit_price", BigDecimal.class)))
+						.all()
+						.collectList()
+						.map(lines -> {
+							cart.load(lines);
+							return cart;
+						}));
+	}
+
+	/**
+	 * The cart's lines with the current names of their items, as order lines.
+	 */
+	public Flux<OrderLine> findLinesWithItems(Long cartId) {
+		return databaseClient.sql("select l.item_id, i.name, l.quantity, l.unit_price from cart_line l"
+				+ " join item i on i.id = l.item_id where l.cart_id = :cartId order by l.id")
+				.bind("cartId", cartId)
+				.map(row -> new OrderLine(row.get("item_id", Long.class), row.get("name", String.class),
+						row.get("quantity", Integer.class), row.get("unit_price", BigDecimal.class)))
+				.all();
+	}
+
+	/**
+	 * Writes the lines that changed since the cart was read, then its total, bumping its version.
+	 * A line removed and added back carries the item's current price, so its unit price is
+	 * compared and written along with the quantity.
+	 */
+	public Mono<Cart> save(Cart cart) {
+		Map<Long, CartLine> loaded = cart.loadedLines();
+		List<Mono<Void>> writes = new ArrayList<>();
+		for(Long itemId : loaded.keySet()) {
+			if(cart.getLine(itemId) == null) {
+				writes.add(databaseClient.sql("delete from cart_line where cart_id = :cartId and item_id = :itemId")
+						.bind("cartId", cart.getId())
+						.bind("itemId", itemId)
+						.then());
+			}
+		}
+		for(CartLine line : cart.getLines()) {
+			CartLine loadedLine = loaded.get(line.getItemId());
+			if(loadedLine == null) {
+				writes.add(sequenceIds.next("cart_line_seq").flatMap(id -> databaseClient
+						.sql("insert into cart_line (id, cart_id, item_id, quantity, unit_price)"
+								+ " values (:id, :cartId, :itemId, :quantity, :unitPrice)")
+						.bind("id", id)
+						.bind("cartId", cart.getId())
+						.bind("itemId", line.getItemId())
+						.bind("quantity", line.getQuantity())
+						.bind("unitPrice", line.getUnitPrice())
+						.then()));
+			} else if(loadedLine.getQuantity() != line.getQuantity()
+					|| loadedLine.getUnitPrice().compareTo(line.getUnitPrice()) != 0) {
+				writes.add(databaseClient.sql("update cart_line set quantity = :quantity, unit_price = :unitPrice"
+								+ " where cart_id = :cartId and item_id = :itemId")
+						.bind("quantity", line.getQuantity())
+						.bind("unitPrice", line.getUnitPrice())
+						.bind("cartId", cart.getId())
+						.bind("itemId", line.getItemId())
+						.then());
+			}
+		}
+		DatabaseClient.GenericExecuteSpec update = databaseClient
+				.sql("update cart set total = :total, version = version + 1 where id = :id")
+				.bind("id", cart.getId());
+		update = cart.getTotal() == null ? update.bindNull("total", BigDecimal.class) : update.bind("total", cart.getTotal());
+		writes.add(update.then());
+		return Flux.concat(writes).then(Mono.just(cart));
+	}
+
+	/**
+	 * Empties the cart: removes all of its lines and resets its total.
+	 */
+	public Mono<Void> clear(Long cartId) {
+		return databaseClient.sql("delete from cart_line where cart_id = :cartId")
+				.bind("cartId", cartId)
+				.then()
+				.then(databaseClient.sql("update cart set total = 0 where id = :cartId")
+						.bind("cartId", cartId)
+						.then());
+	}
+}
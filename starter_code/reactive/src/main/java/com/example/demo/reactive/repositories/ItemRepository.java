@@ -0,0 +1,70 @@
+package com.example.demo.reactive.repositories;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.reactive.model.Item;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class ItemRepository {
+
+	private static final String COLUMNS = "select id, name, price, description from item";
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	public Flux<Item> findAll() {
+		return databaseClient.sql(COLUMNS + " order by id")
+				.map(ItemRepository::toItem)
+				.all();
+	}
+
+	public Mono<Item> findById(Long id) {
+		return databaseClient.sql(COLUMNS + " where id = :id")
+				.bind("id", id)
+				.map(ItemRepository::toItem)
+				.one();
+	}
+
+	public Flux<Item> findAllById(Collection<Long> ids) {
+		if(ids.isEmpty()) {
+			return Flux.empty();
+		}
+		return databaseClient.sql(COLUMNS + " where id in (:ids)")
+				.bind("ids", ids)
+				.map(ItemRepository::toItem)
+				.all();
+	}
+
+	public Flux<Item> findByName(String name) {
+		return databaseClient.sql(COLUMNS + " where name = :name")
+				.bind("name", name)
+				.map(ItemRepository::toItem)
+				.all();
+	}
+
+	/**
+	 * Keyset page of the catalog: up to {@code limit} items with an id greater than
+	 * {@code afterId}, in id order.
+	 */
+	public Flux<Item> findByIdGreaterThan(long afterId, int limit) {
+		return databaseClient.sql(COLUMNS + " where id > :afterId order by id limit :limit")
+				.bind("afterId", afterId)
+				.bind("limit", limit)
+				.map(ItemRepository::toItem)
+				.all();
+	}
+
+	private static Item toItem(Readable row) {
+		return new Item(row.get("id", Long.class), row.get("name", String.class),
+				row.get("price", BigDecimal.class), row.get("description", String.class));
+	}
+}
@@ -0,0 +1,106 @@
+package com.example.demo.reactive.repositories;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.reactive.model.OrderLine;
+import com.example.demo.reactive.model.User;
+import com.example.demo.reactive.model.UserOrder;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class OrderRepository {
+
+	private static final String ORDERS_WITH_LINES = "select o.id, o.total, l.item_id, l.item_name, l.quantity, l.unit_price"
+			+ " from user_order o left join order_line l on l.order_id = o.id";
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@Autowired
+	private SequenceIds sequenceIds;
+
+	/**
+	 * Writes a new order for {@code user} with {@code lines}, returning it with its id.
+	 */
+	public Mono<UserOrder> insert(User user, List<OrderLine> lines, BigDecimal total) {
+		return sequenceIds.next("user_order_seq").flatMap(id -> {
+			DatabaseClient.GenericExecuteSpec insert = databaseClient
+					.sql("insert into user_order (id, user_id, total) values (:id, :userId, :total)")
+					.bind("id", id)
+					.bind("userId", user.getId());
+			insert = total == null ? insert.bindNull("total", BigDecimal.class) : insert.bind("total", total);
+			UserOrder order = new UserOrder(id, user, total);
+			order.getLines().addAll(lines);
+			return insert.then()
+					.thenMany(Flux.fromIterable(lines).concatMap(line -> sequenceIds.next("order_line_seq")
+							.flatMap(lineId -> databaseClient
+									.sql("insert into order_line (id, order_id, item_id, item_name, quantity, unit_price)"
+											+ " values (:id, :orderId, :itemId, :itemName, :quantity, :unitPrice)")
+									.bind("id", lineId)
+									.bind("orderId", id)
+									.bind("itemId", line.getItemId())
+									.bind("itemName", line.getItemName())
+									.bind("quantity", line.getQuantity())
+									.bind("unitPrice", line.getUnitPrice())
+									.then())))
+					.then(Mono.just(order));
+		});
+	}
+
+	public Flux<UserOrder> findByUser(User user) {
+		return toOrders(user, databaseClient.sql(ORDERS_WITH_LINES + " where o.user_id = :userId order by o.id, l.id")
+				.bind("userId", user.getId()));
+	}
+
+	/**
+	 * Keyset page of the user's order ids greater than {@code afterId}, in id order.
+	 */
+	public Flux<Long> findIdsByUser(User user, long afterId, int limit) {
+		return databaseClient.sql("select id from user_order where user_id = :userId and id > :afterId order by id limit :limit")
+				.bind("userId", user.getId())
+				.bind("afterId", afterId)
+				.bind("limit", limit)
+				.map(row -> row.get("id", Long.class))
+				.all();
+	}
+
+	public Flux<UserOrder> findWithLinesByIdIn(User user, Collection<Long> ids) {
+		if(ids.isEmpty()) {
+			return Flux.empty();
+		}
+		return toOrders(user, databaseClient.sql(ORDERS_WITH_LINES + " where o.id in (:ids) order by o.id, l.id")
+				.bind("ids", ids));
+	}
+
+	/**
+	 * Folds the joined rows, which arrive grouped by order, into one order per group.
+	 */
+	private static Flux<UserOrder> toOrders(User user, DatabaseClient.GenericExecuteSpec query) {
+		return query.map(row -> {
+					UserOrder order = new UserOrder(row.get("id", Long.class), user, row.get("total", BigDecimal.class));
+					Long itemId = row.get("item_id", Long.class);
+					if(itemId != null) {
+						order.getLines().add(new OrderLine(itemId, row.get("item_name", String.class),
+								row.get("quantity", Integer.class), row.get("unit_price", BigDecimal.class)));
+					}
+					return order;
+				})
+				.all()
+				.bufferUntilChanged(UserOrder::getId)
+				.map(rows -> {
+					UserOrder order = rows.get(0);
+					for(int i = 1; i < rows.size(); i++) {
+						order.getLines().addAll(rows.get(i).getLines());
+					}
+					return order;
+				});
+	}
+}
@@ -0,0 +1,54 @@
+package com.example.demo.reactive.repositories;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Hands out ids from the schema's sequences the way Hibernate's pooled-lo optimizer does
+ * in the application: each value read from a sequence reserves that value and the next
+ * {@link #ALLOCATION_SIZE} - 1, so most ids need no round trip.
+ */
+@Component
+public class SequenceIds {
+
+	static final int ALLOCATION_SIZE = 50;
+
+	private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	public Mono<Long> next(String sequence) {
+		Block block = blocks.get(sequence);
+		if(block != null) {
+			long id = block.next.getAndIncrement();
+			if(id < block.end) {
+				return Mono.just(id);
+			}
+		}
+		return databaseClient.sql("select next value for " + sequence)
+				.map(row -> row.get(0, Long.class))
+				.one()
+				.map(start -> {
+					blocks.put(sequence, new Block(start + 1, start + ALLOCATION_SIZE));
+					return start;
+				});
+	}
+
+	private static final class Block {
+		private final AtomicLong next;
+		private final long end;
+
+		private Block(long next, long end) {
+			this.next = new AtomicLong(next);
+			this.end = end;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.example.demo.reactive.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.reactive.model.User;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class UserRepository {
+
+	private static final String COLUMNS = "select id, username, password, cart_id from user";
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@Autowired
+	private SequenceIds sequenceIds;
+
+	public Mono<User> findById(long id) {
+		return databaseClient.sql(COLUMNS + " where id = :id")
+				.bind("id", id)
+				.map(UserRepository::toUser)
+				.one();
+	}
+
+	public Mono<User> findByUsername(String username) {
+		return databaseClient.sql(COLUMNS + " where username = :username")
+				.bind("username", username)
+				.map(UserRepository::toUser)
+				.one();
+	}
+
+	public Mono<User> insert(String username, String password, long cartId) {
+		return sequenceIds.next("user_seq").flatMap(id -> databaseClient
+				.sql("insert into user (id, username, password, cart_id) values (:id, :username, :password, :cartId)")
+				.bind("id", id)
+				.bind("username", username)
+				.bind("password", password)
+				.bind("cartId", cartId)
+				.then()
+				.thenReturn(new User(id, username, password, cartId)));
+	}
+
+	private static User toUser(Readable row) {
+		return new User(row.get("id", Long.class), row.get("username", String.class),
+				row.get("password", String.class), row.get("cart_id", Long.class));
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.demo.reactive.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.example.demo.reactive.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.WebFilterExchange;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+
+/**
+ * Reactive port of the application's {@code JWTAuthenticationFilter}: reads the JSON
+ * credentials posted to {@code /login} and answers a successful login with a signed
+ * token in the {@code Authorization} header.
+ */
+public class JWTAuthenticationWebFilter extends AuthenticationWebFilter {
+
+    private static final Algorithm ALGORITHM = HMAC512(SecurityConstants.SECRET.getBytes());
+
+    private static final ObjectReader CREDENTIALS_READER = new ObjectMapper().readerFor(User.class);
+
+    public JWTAuthenticationWebFilter(ReactiveAuthenticationManager authenticationManager) {
+        super(authenticationManager);
+        setRequiresAuthenticationMatcher(ServerWebExchangeMatchers.pathMatchers(HttpMethod.POST, SecurityConstants.LOGIN_URL));
+        setServerAuthenticationConverter(JWTAuthenticationWebFilter::readCredentials);
+        setAuthenticationSuccessHandler(JWTAuthenticationWebFilter::issueToken);
+        setAuthenticationFailureHandler(new ServerAuthenticationEntryPointFailureHandler(
+                new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)));
+        setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+    }
+
+    private static Mono<Authentication> readCredentials(ServerWebExchange exchange) {
+        return DataBufferUtils.join(exchange.getRequest().getBody())
+                .map(buffer -> {
+                    try (InputStream in = buffer.asInputStream(true)) {
+                        User credentials = CREDENTIALS_READER.readValue(in);
+                        return new UsernamePasswordAuthenticationToken(credentials.getUsername(), credentials.getPassword());
+                    } catch (IOException e) {
+                        throw new BadCredentialsException("Unreadable login request", e);
+                    }
+                });
+    }
+
+    private static Mono<Void> issueToken(WebFilterExchange webFilterExchange, Authentication auth) {
+        String token = JWT.create()
+                .withSubject(auth.getName())
+                .withExpiresAt(new Date(System.currentTimeMillis() + SecurityConstants.EXPIRATION_TIME))
+                .sign(ALGORITHM);
+        webFilterExchange.getExchange().getResponse().getHeaders()
+                .add(SecurityConstants.HEADER_STRING, SecurityConstants.TOKEN_PREFIX + token);
+        return Mono.empty();
+    }
+}
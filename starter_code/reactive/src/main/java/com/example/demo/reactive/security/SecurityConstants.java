@@ -0,0 +1,13 @@
+package com.example.demo.reactive.security;
+
+/**
+ * The application's token settings, so tokens issued by either variant are accepted by both.
+ */
+public class SecurityConstants {
+    public static final String SECRET = "oursecretkey";
+    public static final long EXPIRATION_TIME = 864_000_000; // 10 days
+    public static final String TOKEN_PREFIX = "Bearer ";
+    public static final String HEADER_STRING = "Authorization";
+    public static final String SIGN_UP_URL = "/api/user/create";
+    public static final String LOGIN_URL = "/login";
+}
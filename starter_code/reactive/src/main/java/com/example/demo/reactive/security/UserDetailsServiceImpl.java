@@ -0,0 +1,24 @@
+package com.example.demo.reactive.security;
+
+import com.example.demo.reactive.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+@Service
+public class UserDetailsServiceImpl implements ReactiveUserDetailsService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return userRepository.findByUsername(username)
+                .map(user -> new org.springframework.security.core.userdetails.User(user.getUsername(),
+                        user.getPassword(), Collections.emptyList()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.reactive.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@EnableWebFluxSecurity
+public class WebSecurityConfiguration {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, ReactiveUserDetailsService userDetailsService,
+                                                         BCryptPasswordEncoder bCryptPasswordEncoder, MeterRegistry meterRegistry) {
+        UserDetailsRepositoryReactiveAuthenticationManager loginManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        loginManager.setPasswordEncoder(bCryptPasswordEncoder);
+        // BCrypt is CPU bound, so password checks run off the event loop
+        loginManager.setScheduler(Schedulers.boundedElastic());
+
+        return http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers(HttpMethod.POST, SecurityConstants.SIGN_UP_URL).permitAll()
+                        .pathMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
+                        .anyExchange().authenticated())
+                .addFilterAt(new JWTAuthenticationWebFilter(loginManager), SecurityWebFiltersOrder.AUTHENTICATION)
+                .addFilterAt(new JWTAuthenticationVerificationWebFilter(meterRegistry), SecurityWebFiltersOrder.AUTHENTICATION)
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .build();
+    }
+}
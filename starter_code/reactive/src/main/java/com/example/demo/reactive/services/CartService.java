@@ -0,0 +1,39 @@
+package com.example.demo.reactive.services;
+
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.example.demo.reactive.model.Cart;
+import com.example.demo.reactive.model.User;
+import com.example.demo.reactive.repositories.CartRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies cart mutations atomically: the cart row is locked, its lines read, the mutation
+ * applied and the changed lines written in one transaction. Concurrent updates of the
+ * same cart wait on the row lock instead of on a thread.
+ */
+@Service
+public class CartService {
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	@Autowired
+	private TransactionalOperator transactionalOperator;
+
+	public Mono<Cart> update(User user, Consumer<Cart> mutation) {
+		return cartRepository.findByIdForUpdate(user.getCartId())
+				.switchIfEmpty(Mono.error(() -> new IllegalStateException("Cart " + user.getCartId() + " not found")))
+				.flatMap(cart -> {
+					mutation.accept(cart);
+					cart.setUser(user);
+					return cartRepository.save(cart);
+				})
+				.as(transactionalOperator::transactional);
+	}
+}
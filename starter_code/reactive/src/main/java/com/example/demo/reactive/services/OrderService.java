@@ -0,0 +1,40 @@
+package com.example.demo.reactive.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.example.demo.reactive.model.User;
+import com.example.demo.reactive.model.UserOrder;
+import com.example.demo.reactive.repositories.CartRepository;
+import com.example.demo.reactive.repositories.OrderRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Submits orders. A submission locks the cart, writes the order with its lines and
+ * empties the cart in one transaction, so a cart is never ordered twice.
+ */
+@Service
+public class OrderService {
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private TransactionalOperator transactionalOperator;
+
+	public Mono<UserOrder> submit(User user) {
+		Long cartId = user.getCartId();
+		return cartRepository.findByIdForUpdate(cartId)
+				.switchIfEmpty(Mono.error(() -> new IllegalStateException("Cart " + cartId + " not found")))
+				.flatMap(cart -> cartRepository.findLinesWithItems(cartId)
+						.collectList()
+						.flatMap(lines -> orderRepository.insert(user, lines, cart.getTotal())))
+				.flatMap(order -> cartRepository.clear(cartId).thenReturn(order))
+				.as(transactionalOperator::transactional);
+	}
+}
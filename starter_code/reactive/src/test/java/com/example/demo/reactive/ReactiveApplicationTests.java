@@ -0,0 +1,198 @@
+package com.example.demo.reactive;
+
+import com.example.demo.reactive.security.SecurityConstants;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.startsWith;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = ReactiveApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "security.bcrypt.strength=4")
+public class ReactiveApplicationTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    public void sign_up_login_shop_and_submit() {
+        String token = signUpAndLogin("reactiveShopper");
+
+        webTestClient.get().uri("/api/item").header(HttpHeaders.AUTHORIZATION, token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("Round Widget");
+
+        webTestClient.post().uri("/api/cart/addToCart").header(HttpHeaders.AUTHORIZATION, token)
+                .bodyValue(cartRequest("reactiveShopper", 1, 2))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(5.98)
+                .jsonPath("$.lines[0].quantity").isEqualTo(2)
+                .jsonPath("$.lines[0].subtotal").isEqualTo(5.98)
+                .jsonPath("$.user").doesNotExist();
+
+        webTestClient.post().uri("/api/cart/removeFromCart").header(HttpHeaders.AUTHORIZATION, token)
+                .bodyValue(cartRequest("reactiveShopper", 1, 1))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(2.99);
+
+        webTestClient.post().uri("/api/order/submit/reactiveShopper").header(HttpHeaders.AUTHORIZATION, token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(2.99)
+                .jsonPath("$.lines[0].itemName").isEqualTo("Round Widget")
+                .jsonPath("$.user").doesNotExist();
+
+        webTestClient.get().uri("/api/order/history/reactiveShopper/page?limit=10").header(HttpHeaders.AUTHORIZATION, token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.orders.length()").isEqualTo(1)
+                .jsonPath("$.orders[0].user").doesNotExist()
+                .jsonPath("$.nextCursor").doesNotExist();
+    }
+
+    @Test
+    public void requests_without_a_valid_token_are_unauthorized() {
+        webTestClient.get().uri("/api/item")
+                .exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/api/item").header(HttpHeaders.AUTHORIZATION, SecurityConstants.TOKEN_PREFIX + "not.a.token")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        Map<String, String> credentials = new HashMap<>();
+        credentials.put("username", "nobody");
+        credentials.put("password", "wrongPassword");
+        webTestClient.post().uri(SecurityConstants.LOGIN_URL).bodyValue(credentials)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    public void sign_up_validates_the_password() {
+        Map<String, String> request = new HashMap<>();
+        request.put("username", "reactiveShort");
+        request.put("password", "short");
+        request.put("confirmPassword", "short");
+
+        webTestClient.post().uri(SecurityConstants.SIGN_UP_URL).bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void modify_cart_rejects_a_change_without_an_item_id() {
+        String token = signUpAndLogin("reactiveBatcher");
+        Map<String, Object> change = new HashMap<>();
+        change.put("itemId", null);
+        change.put("quantity", 1);
+        Map<String, Object> request = new HashMap<>();
+        request.put("username", "reactiveBatcher");
+        request.put("changes", Collections.singletonList(change));
+
+        webTestClient.post().uri("/api/cart/modifyCart").header(HttpHeaders.AUTHORIZATION, token)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void a_line_added_back_after_a_price_change_is_stored_at_the_new_price() {
+        String token = signUpAndLogin("reactiveRepricer");
+        webTestClient.post().uri("/api/cart/addToCart").header(HttpHeaders.AUTHORIZATION, token)
+                .bodyValue(cartRequest("reactiveRepricer", 2, 1))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(1.99);
+
+        setPrice(2L, new BigDecimal("3.49"));
+        try {
+            Map<String, Object> change = new HashMap<>();
+            change.put("itemId", 2);
+            change.put("quantity", 1);
+            Map<String, Object> request = new HashMap<>();
+            request.put("username", "reactiveRepricer");
+            request.put("removeItemIds", Collections.singletonList(2));
+            request.put("changes", Collections.singletonList(change));
+            webTestClient.post().uri("/api/cart/modifyCart").header(HttpHeaders.AUTHORIZATION, token)
+                    .bodyValue(request)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.total").isEqualTo(3.49)
+                    .jsonPath("$.lines[0].unitPrice").isEqualTo(3.49);
+
+            // the next update reads the cart back, so it sees what the batch stored
+            webTestClient.post().uri("/api/cart/addToCart").header(HttpHeaders.AUTHORIZATION, token)
+                    .bodyValue(cartRequest("reactiveRepricer", 2, 1))
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.total").isEqualTo(6.98)
+                    .jsonPath("$.lines[0].unitPrice").isEqualTo(3.49);
+        } finally {
+            setPrice(2L, new BigDecimal("1.99"));
+        }
+    }
+
+    private String signUpAndLogin(String username) {
+        Map<String, String> request = new HashMap<>();
+        request.put("username", username);
+        request.put("password", "testPassword");
+        request.put("confirmPassword", "testPassword");
+        webTestClient.post().uri(SecurityConstants.SIGN_UP_URL).bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.username").isEqualTo(username)
+                .jsonPath("$.password").doesNotExist();
+
+        request.remove("confirmPassword");
+        return webTestClient.post().uri(SecurityConstants.LOGIN_URL).bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.AUTHORIZATION, startsWith(SecurityConstants.TOKEN_PREFIX))
+                .returnResult(Void.class)
+                .getResponseHeaders()
+                .getFirst(HttpHeaders.AUTHORIZATION);
+    }
+
+    private void setPrice(Long itemId, BigDecimal price) {
+        databaseClient.sql("update item set price = :price where id = :id")
+                .bind("price", price)
+                .bind("id", itemId)
+                .then()
+                .block();
+    }
+
+    private static Map<String, Object> cartRequest(String username, long itemId, int quantity) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("username", username);
+        request.put("itemId", itemId);
+        request.put("quantity", quantity);
+        return request;
+    }
+}
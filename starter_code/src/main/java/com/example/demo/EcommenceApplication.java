@@ -1,15 +1,25 @@
 package com.example.demo;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import com.example.demo.security.BCryptCalibration;
+import com.example.demo.security.PasswordHashingService;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
 @EnableJpaRepositories("com.example.demo.model.persistence.repositories")
 @EntityScan("com.example.demo.model.persistence")
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
 public class EcommenceApplication {
 
 	public static void main(String[] args) {
@@ -17,8 +27,26 @@ public class EcommenceApplication {
 	}
 
 	@Bean
-	public BCryptPasswordEncoder bCryptPasswordEncoder(){
-		return new BCryptPasswordEncoder();
+	public BCryptPasswordEncoder bCryptPasswordEncoder(@Value("${security.bcrypt.strength:0}") int strength,
+			@Value("${security.bcrypt.target-hash-millis:100}") long targetHashMillis){
+		return new BCryptPasswordEncoder(strength > 0 ? strength : BCryptCalibration.calibrate(targetHashMillis));
+	}
+
+	@Bean
+	public PasswordHashingService passwordHashingService(BCryptPasswordEncoder bCryptPasswordEncoder,
+			@Value("${security.bcrypt.pool-size:0}") int poolSize,
+			@Value("${security.bcrypt.queue-capacity:64}") int queueCapacity){
+		return new PasswordHashingService(bCryptPasswordEncoder,
+				poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors(), queueCapacity);
+	}
+
+	/**
+	 * Registered with the ObjectMapper Spring MVC writes responses with, replacing the
+	 * reflective getter calls with generated lambdas.
+	 */
+	@Bean
+	public Module blackbirdModule(){
+		return new BlackbirdModule();
 	}
 
 }
@@ -0,0 +1,33 @@
+package com.example.demo;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs whether requests and async work run on virtual threads. Spring Boot quietly
+ * ignores {@code spring.threads.virtual.enabled} below Java 21, so that case is a warning.
+ */
+@Component
+public class VirtualThreadsCheck {
+
+	private final Logger logger = LogManager.getLogger(VirtualThreadsCheck.class);
+
+	@Autowired
+	private Environment environment;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void logThreadingMode() {
+		if(Threading.VIRTUAL.isActive(environment)) {
+			logger.info("Tomcat requests, async and scheduled tasks run on virtual threads");
+		} else if(environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+			logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads",
+					Runtime.version().feature());
+		}
+	}
+}
@@ -1,9 +1,14 @@
 package com.example.demo.controllers;
 
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.IntStream;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -11,29 +16,33 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.example.demo.model.persistence.Cart;
 import com.example.demo.model.persistence.Item;
 import com.example.demo.model.persistence.User;
-import com.example.demo.model.persistence.repositories.CartRepository;
 import com.example.demo.model.persistence.repositories.ItemRepository;
 import com.example.demo.model.persistence.repositories.UserRepository;
+import com.example.demo.model.requests.CartItemChange;
+import com.example.demo.model.requests.ModifyCartBatchRequest;
 import com.example.demo.model.requests.ModifyCartRequest;
+import com.example.demo.model.responses.CartResponse;
+import com.example.demo.services.CartService;
 
 @RestController
 @RequestMapping("/api/cart")
 public class CartController {
+
+	static final int MAX_BATCH_CHANGES = 200;
 	
 	@Autowired
 	private UserRepository userRepository;
 	
 	@Autowired
-	private CartRepository cartRepository;
+	private ItemRepository itemRepository;
 	
 	@Autowired
-	private ItemRepository itemRepository;
+	private CartService cartService;
 	
 	@PostMapping("/addToCart")
-	public ResponseEntity<Cart> addTocart(@RequestBody ModifyCartRequest request) {
+	public ResponseEntity<CartResponse> addTocart(@RequestBody ModifyCartRequest request) {
 		User user = userRepository.findByUsername(request.getUsername());
 		if(user == null) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -42,15 +51,16 @@ public class CartController {
 		if(!item.isPresent()) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 		}
-		Cart cart = user.getCart();
-		IntStream.range(0, request.getQuantity())
-			.forEach(i -> cart.addItem(item.get()));
-		cartRepository.save(cart);
-		return ResponseEntity.ok(cart);
+		try {
+			return ResponseEntity.ok(new CartResponse(cartService.update(user.getCart().getId(),
+					cart -> cart.addItem(item.get(), request.getQuantity()))));
+		} catch (ConcurrencyFailureException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		}
 	}
 	
 	@PostMapping("/removeFromCart")
-	public ResponseEntity<Cart> removeFromcart(@RequestBody ModifyCartRequest request) {
+	public ResponseEntity<CartResponse> removeFromcart(@RequestBody ModifyCartRequest request) {
 		User user = userRepository.findByUsername(request.getUsername());
 		if(user == null) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -59,11 +69,67 @@ public class CartController {
 		if(!item.isPresent()) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 		}
-		Cart cart = user.getCart();
-		IntStream.range(0, request.getQuantity())
-			.forEach(i -> cart.removeItem(item.get()));
-		cartRepository.save(cart);
-		return ResponseEntity.ok(cart);
+		try {
+			return ResponseEntity.ok(new CartResponse(cartService.update(user.getCart().getId(),
+					cart -> cart.removeItem(item.get(), request.getQuantity()))));
+		} catch (ConcurrencyFailureException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		}
+	}
+
+	/**
+	 * Applies many changes to the cart in one transaction and one save. Whole-line
+	 * removals are applied before the quantity deltas, so removing an item and adding it
+	 * back sets its quantity. All items are resolved with a single lookup; if any
+	 * of them does not exist nothing is changed.
+	 */
+	@PostMapping("/modifyCart")
+	public ResponseEntity<CartResponse> modifyCart(@RequestBody ModifyCartBatchRequest request) {
+		int size = (request.getChanges() == null ? 0 : request.getChanges().size())
+				+ (request.getRemoveItemIds() == null ? 0 : request.getRemoveItemIds().size());
+		if(size == 0 || size > MAX_BATCH_CHANGES) {
+			return ResponseEntity.badRequest().build();
+		}
+		if(request.getRemoveItemIds() != null && request.getRemoveItemIds().contains(null)) {
+			return ResponseEntity.badRequest().build();
+		}
+		Set<Long> itemIds = new HashSet<>();
+		if(request.getChanges() != null) {
+			for(CartItemChange change : request.getChanges()) {
+				if(change == null || change.getItemId() == null) {
+					return ResponseEntity.badRequest().build();
+				}
+				itemIds.add(change.getItemId());
+			}
+		}
+		User user = userRepository.findByUsername(request.getUsername());
+		if(user == null) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+				.collect(Collectors.toMap(Item::getId, Function.identity()));
+		if(items.size() != itemIds.size()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		try {
+			return ResponseEntity.ok(new CartResponse(cartService.update(user.getCart().getId(), cart -> {
+				if(request.getRemoveItemIds() != null) {
+					request.getRemoveItemIds().forEach(cart::removeLine);
+				}
+				if(request.getChanges() != null) {
+					for(CartItemChange change : request.getChanges()) {
+						Item item = items.get(change.getItemId());
+						if(change.getQuantity() > 0) {
+							cart.addItem(item, change.getQuantity());
+						} else {
+							cart.removeItem(item, -change.getQuantity());
+						}
+					}
+				}
+			})));
+		} catch (ConcurrencyFailureException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		}
 	}
 		
 }
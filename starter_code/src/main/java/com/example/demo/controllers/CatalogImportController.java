@@ -0,0 +1,84 @@
+package com.example.demo.controllers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.model.responses.CatalogImportResult;
+import com.example.demo.services.CatalogImportService;
+import com.example.demo.services.ImportAlreadyRunningException;
+import com.example.demo.services.InvalidCatalogImportException;
+
+/**
+ * Catalog imports for the users named in {@code catalog.import.admins}. The request body
+ * is streamed straight into the import, and putting the same import id again resumes an
+ * interrupted import. Putting the id of a completed import answers 409 with its result
+ * marked skipped, without reading the body; a new catalog needs a new id.
+ */
+@RestController
+@RequestMapping("/api/admin/catalog/imports")
+public class CatalogImportController {
+
+	private final Logger logger = LogManager.getLogger(CatalogImportController.class);
+
+	@Autowired
+	private CatalogImportService catalogImportService;
+
+	@Value("${catalog.import.admins:}")
+	private String[] admins = new String[0];
+
+	@PutMapping("/{importId}")
+	public ResponseEntity<CatalogImportResult> importCatalog(@PathVariable String importId,
+			@RequestParam(defaultValue = "ndjson") String format, InputStream body, Principal principal) throws IOException {
+		if(!isAdmin(principal)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		boolean csv = "csv".equalsIgnoreCase(format);
+		if(!csv && !"ndjson".equalsIgnoreCase(format)) {
+			return ResponseEntity.badRequest().build();
+		}
+		logger.info("Catalog import {} as {} started by: {}", importId, format, principal.getName());
+		CatalogImportResult result;
+		try {
+			result = catalogImportService.importCatalog(importId,
+					csv ? CatalogImportService.Format.CSV : CatalogImportService.Format.NDJSON, body);
+		} catch (InvalidCatalogImportException e) {
+			logger.error("Catalog import {} rejected: {}", importId, e.getMessage());
+			return ResponseEntity.badRequest().build();
+		} catch (ImportAlreadyRunningException e) {
+			logger.error("Catalog import {} is already running", importId);
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		}
+		if(result.isSkipped()) {
+			logger.warn("Catalog import {} has already completed; the request body was not imported", importId);
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+		}
+		return ResponseEntity.ok(result);
+	}
+
+	@GetMapping("/{importId}")
+	public ResponseEntity<CatalogImportResult> getImport(@PathVariable String importId, Principal principal) {
+		if(!isAdmin(principal)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		return ResponseEntity.of(catalogImportService.findImport(importId));
+	}
+
+	private boolean isAdmin(Principal principal) {
+		return principal != null && Arrays.asList(admins).contains(principal.getName());
+	}
+}
@@ -1,40 +1,85 @@
 package com.example.demo.controllers;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.demo.model.persistence.Item;
 import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.model.responses.ItemPage;
+import com.example.demo.model.responses.ItemResponse;
+import com.example.demo.search.ItemSearchIndex;
 
 @RestController
 @RequestMapping("/api/item")
+@Transactional(readOnly = true)
 public class ItemController {
 
+	static final int DEFAULT_PAGE_SIZE = 50;
+	static final int MAX_PAGE_SIZE = 200;
+	static final int DEFAULT_SEARCH_LIMIT = 20;
+
 	@Autowired
 	private ItemRepository itemRepository;
+
+	@Autowired
+	private ItemSearchIndex itemSearchIndex;
 	
 	@GetMapping
-	public ResponseEntity<List<Item>> getItems() {
-		return ResponseEntity.ok(itemRepository.findAll());
+	public ResponseEntity<List<ItemResponse>> getItems() {
+		return ResponseEntity.ok(toResponses(itemRepository.findAll()));
+	}
+	
+	@GetMapping("/page")
+	public ResponseEntity<ItemPage> getItemPage(@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+		Long afterId = cursor == null ? Long.valueOf(0L) : Cursors.decode(cursor);
+		if(afterId == null || limit < 1) {
+			return ResponseEntity.badRequest().build();
+		}
+		int size = Math.min(limit, MAX_PAGE_SIZE);
+		List<Item> items = itemRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size + 1));
+		String nextCursor = null;
+		if(items.size() > size) {
+			items = items.subList(0, size);
+			nextCursor = Cursors.encode(items.get(size - 1).getId());
+		}
+		return ResponseEntity.ok(new ItemPage(toResponses(items), nextCursor));
+	}
+	
+	@GetMapping("/search")
+	public ResponseEntity<List<ItemResponse>> searchItems(@RequestParam String q,
+			@RequestParam(defaultValue = "" + DEFAULT_SEARCH_LIMIT) int limit) {
+		if(limit < 1) {
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.ok(toResponses(itemSearchIndex.search(q, Math.min(limit, MAX_PAGE_SIZE))));
 	}
 	
 	@GetMapping("/{id}")
-	public ResponseEntity<Item> getItemById(@PathVariable Long id) {
-		return ResponseEntity.of(itemRepository.findById(id));
+	public ResponseEntity<ItemResponse> getItemById(@PathVariable Long id) {
+		return ResponseEntity.of(itemRepository.findById(id).map(ItemResponse::new));
 	}
 	
 	@GetMapping("/name/{name}")
-	public ResponseEntity<List<Item>> getItemsByName(@PathVariable String name) {
+	public ResponseEntity<List<ItemResponse>> getItemsByName(@PathVariable String name) {
 		List<Item> items = itemRepository.findByName(name);
 		return items == null || items.isEmpty() ? ResponseEntity.notFound().build()
-				: ResponseEntity.ok(items);
+				: ResponseEntity.ok(toResponses(items));
 			
 	}
+
+	private static List<ItemResponse> toResponses(List<Item> items) {
+		return items.stream().map(ItemResponse::new).collect(Collectors.toList());
+	}
 	
 }
@@ -1,26 +1,50 @@
 package com.example.demo.controllers;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.demo.model.persistence.User;
 import com.example.demo.model.persistence.UserOrder;
 import com.example.demo.model.persistence.repositories.OrderRepository;
 import com.example.demo.model.persistence.repositories.UserRepository;
+import com.example.demo.model.responses.OrderPage;
+import com.example.demo.model.responses.OrderResponse;
+import com.example.demo.services.OrderExportService;
+import com.example.demo.services.OrderService;
+import com.example.demo.services.OrderSubmission;
 
 @RestController
 @RequestMapping("/api/order")
 public class OrderController {
 
+	static final int DEFAULT_PAGE_SIZE = 20;
+	static final int MAX_PAGE_SIZE = 100;
+	static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+	static final MediaType CSV = MediaType.parseMediaType("text/csv");
+	static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+	static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+	static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
 	private final Logger logger = LogManager.getLogger(OrderController.class);
 
 	@Autowired
@@ -28,28 +52,99 @@ public class OrderController {
 	
 	@Autowired
 	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderExportService orderExportService;
+
+	@Autowired
+	private OrderService orderService;
 	
 	@PostMapping("/submit/{username}")
-	public ResponseEntity<UserOrder> submit(@PathVariable String username) {
+	public ResponseEntity<OrderResponse> submit(@PathVariable String username,
+			@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+		if(idempotencyKey != null && (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+			return ResponseEntity.badRequest().build();
+		}
 		User user = userRepository.findByUsername(username);
 		if(user == null) {
-			logger.error("User with username: " + username + " not found!");
+			logger.error("User with username: {} not found!", username);
 			return ResponseEntity.notFound().build();
 		}
-		UserOrder order = UserOrder.createFromCart(user.getCart());
-		orderRepository.save(order);
-		logger.info("Order for user: " + username + " successfully submitted!");
-		return ResponseEntity.ok(order);
+		OrderSubmission submission;
+		try {
+			submission = orderService.submit(user, idempotencyKey);
+		} catch (ConcurrencyFailureException e) {
+			logger.error("Order for user: {} lost to concurrent cart updates", username);
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		}
+		if(submission.isReplayed()) {
+			logger.info("Order {} for user: {} replayed for a repeated submission", submission.getOrder().getId(), username);
+			return ResponseEntity.ok().header(IDEMPOTENT_REPLAYED_HEADER, "true").body(new OrderResponse(submission.getOrder()));
+		}
+		logger.info("Order for user: {} successfully submitted!", username);
+		return ResponseEntity.ok(new OrderResponse(submission.getOrder()));
 	}
 	
 	@GetMapping("/history/{username}")
-	public ResponseEntity<List<UserOrder>> getOrdersForUser(@PathVariable String username) {
+	@Transactional(readOnly = true)
+	public ResponseEntity<List<OrderResponse>> getOrdersForUser(@PathVariable String username) {
+		User user = userRepository.findByUsername(username);
+		if(user == null) {
+			logger.error("User with username: {} not found!", username);
+			return ResponseEntity.notFound().build();
+		}
+		logger.info("Returning orders for user: {}", username);
+		return ResponseEntity.ok(orderRepository.findByUser(user).stream()
+				.map(OrderResponse::new)
+				.collect(Collectors.toList()));
+	}
+	
+	@GetMapping("/history/{username}/page")
+	@Transactional(readOnly = true)
+	public ResponseEntity<OrderPage> getOrderPageForUser(@PathVariable String username,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+		Long afterId = cursor == null ? Long.valueOf(0L) : Cursors.decode(cursor);
+		if(afterId == null || limit < 1) {
+			return ResponseEntity.badRequest().build();
+		}
+		User user = userRepository.findByUsername(username);
+		if(user == null) {
+			logger.error("User with username: {} not found!", username);
+			return ResponseEntity.notFound().build();
+		}
+		int size = Math.min(limit, MAX_PAGE_SIZE);
+		List<Long> ids = orderRepository.findIdsByUser(user, afterId, PageRequest.of(0, size + 1));
+		String nextCursor = null;
+		if(ids.size() > size) {
+			ids = ids.subList(0, size);
+			nextCursor = Cursors.encode(ids.get(size - 1));
+		}
+		List<UserOrder> orders = ids.isEmpty() ? Collections.emptyList() : orderRepository.findWithLinesByIdIn(ids);
+		return ResponseEntity.ok(new OrderPage(orders.stream()
+				.map(OrderResponse::new)
+				.collect(Collectors.toList()), nextCursor));
+	}
+	
+	@GetMapping("/history/{username}/export")
+	public ResponseEntity<StreamingResponseBody> exportOrdersForUser(@PathVariable String username,
+			@RequestParam(defaultValue = "ndjson") String format) {
+		boolean csv = "csv".equalsIgnoreCase(format);
+		if(!csv && !"ndjson".equalsIgnoreCase(format)) {
+			return ResponseEntity.badRequest().build();
+		}
 		User user = userRepository.findByUsername(username);
 		if(user == null) {
-			logger.error("User with username: " + username + " not found!");
+			logger.error("User with username: {} not found!", username);
 			return ResponseEntity.notFound().build();
 		}
-		logger.info("Returning orders for user: " + username);
-		return ResponseEntity.ok(orderRepository.findByUser(user));
+		logger.info("Exporting orders for user: {} as {}", username, format);
+		StreamingResponseBody body = csv ? out -> orderExportService.writeCsv(user, out)
+				: out -> orderExportService.writeNdjson(user, out);
+		return ResponseEntity.ok()
+				.contentType(csv ? CSV : NDJSON)
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						"attachment; filename=\"orders." + (csv ? "csv" : "ndjson") + "\"")
+				.body(body);
 	}
 }
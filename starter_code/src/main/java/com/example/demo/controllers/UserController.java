@@ -3,8 +3,9 @@ package com.example.demo.controllers;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -17,6 +18,9 @@ import com.example.demo.model.persistence.User;
 import com.example.demo.model.persistence.repositories.CartRepository;
 import com.example.demo.model.persistence.repositories.UserRepository;
 import com.example.demo.model.requests.CreateUserRequest;
+import com.example.demo.model.responses.UserResponse;
+import com.example.demo.security.PasswordHashingRejectedException;
+import com.example.demo.security.PasswordHashingService;
 
 @RestController
 @RequestMapping("/api/user")
@@ -31,36 +35,43 @@ public class UserController {
 	private CartRepository cartRepository;
 
 	@Autowired
-	private BCryptPasswordEncoder bCryptPasswordEncoder;
+	private PasswordHashingService passwordHashingService;
 
 	@GetMapping("/id/{id}")
-	public ResponseEntity<User> findById(@PathVariable Long id) {
-		return ResponseEntity.of(userRepository.findById(id));
+	@Transactional(readOnly = true)
+	public ResponseEntity<UserResponse> findById(@PathVariable Long id) {
+		return ResponseEntity.of(userRepository.findById(id).map(UserResponse::new));
 	}
 	
 	@GetMapping("/{username}")
-	public ResponseEntity<User> findByUserName(@PathVariable String username) {
+	@Transactional(readOnly = true)
+	public ResponseEntity<UserResponse> findByUserName(@PathVariable String username) {
 		User user = userRepository.findByUsername(username);
-		return user == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(user);
+		return user == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(new UserResponse(user));
 	}
 	
 	@PostMapping("/create")
-	public ResponseEntity<User> createUser(@RequestBody CreateUserRequest createUserRequest) {
+	public ResponseEntity<UserResponse> createUser(@RequestBody CreateUserRequest createUserRequest) {
 		User user = new User();
 		user.setUsername(createUserRequest.getUsername());
 		Cart cart = new Cart();
 		cartRepository.save(cart);
 		user.setCart(cart);
-		logger.info("Cart configured for User " + createUserRequest.getUsername());
+		logger.info("Cart configured for User {}", createUserRequest.getUsername());
 		String password = createUserRequest.getPassword();
 		String confirmPassword = createUserRequest.getConfirmPassword();
 		if(password.length() < 7 || !password.equals(confirmPassword)) {
-			logger.error("Invalid combination of password: " + password + " and confirm password: " + confirmPassword);
+			logger.error("Invalid combination of password and confirm password for User {}", createUserRequest.getUsername());
 			return ResponseEntity.badRequest().build();
 		}
-		user.setPassword(bCryptPasswordEncoder.encode(createUserRequest.getPassword()));
+		try {
+			user.setPassword(passwordHashingService.encode(createUserRequest.getPassword()));
+		} catch (PasswordHashingRejectedException e) {
+			logger.warn("Password hashing pool full, rejecting registration of {}", createUserRequest.getUsername());
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+		}
 		userRepository.save(user);
-		logger.info("User " + createUserRequest.getUsername() + " successfully registered!");
-		return ResponseEntity.ok(user);
+		logger.info("User {} successfully registered!", createUserRequest.getUsername());
+		return ResponseEntity.ok(new UserResponse(user));
 	}
 }
@@ -0,0 +1,26 @@
+package com.example.demo.datasource;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+
+/**
+ * Keeps a pooled connection whose statement timed out waiting for a row lock. Hikari
+ * evicts the connection on any {@link SQLTimeoutException}, and H2 reports a lock timeout
+ * as one, so the rollback that follows would fail on the closed connection and hide the
+ * lock timeout from the cart and checkout retries. The connection itself is still usable.
+ */
+public class LockTimeoutExceptionOverride implements SQLExceptionOverride {
+
+	// org.h2.api.ErrorCode.LOCK_TIMEOUT_1; H2 is only a runtime dependency
+	static final int H2_LOCK_TIMEOUT = 50200;
+
+	// not annotated: inside this class Override names SQLExceptionOverride.Override
+	public SQLExceptionOverride.Override adjudicate(SQLException e) {
+		if(e instanceof SQLTimeoutException && e.getErrorCode() == H2_LOCK_TIMEOUT) {
+			return SQLExceptionOverride.Override.DO_NOT_EVICT;
+		}
+		return SQLExceptionOverride.Override.CONTINUE_EVICT;
+	}
+}
@@ -0,0 +1,80 @@
+package com.example.demo.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Logs each connection pool's size next to the number of requests that can run at once,
+ * and warns about the settings behind pool exhaustion under a burst of logins: a pool
+ * that only opens connections once the burst has started, connections that no request
+ * thread can use, and leak detection turned off.
+ */
+@Component
+public class PoolSizingCheck {
+
+	private final Logger logger = LogManager.getLogger(PoolSizingCheck.class);
+
+	@Autowired
+	private Environment environment;
+
+	@Autowired
+	private ServerProperties serverProperties;
+
+	@Autowired
+	private ObjectProvider<HikariDataSource> hikariDataSources;
+
+	@Autowired
+	private ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void checkPools() {
+		List<HikariDataSource> pools = new ArrayList<>();
+		hikariDataSources.orderedStream().forEach(pools::add);
+		replicaRoutingDataSource.ifAvailable(routing -> routing.getReplicas().forEach(replica -> pools.add(replica.getDataSource())));
+		for(HikariDataSource pool : pools) {
+			if(Threading.VIRTUAL.isActive(environment)) {
+				logger.info("Pool {}: {} connections for requests on virtual threads, waiting up to {} ms for one",
+						pool.getPoolName(), pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+			} else {
+				logger.info("Pool {}: {} connections for {} request threads, waiting up to {} ms for one",
+						pool.getPoolName(), pool.getMaximumPoolSize(), requestThreads(), pool.getConnectionTimeout());
+			}
+			for(String warning : warnings(pool)) {
+				logger.warn("Pool {}: {}", pool.getPoolName(), warning);
+			}
+		}
+	}
+
+	List<String> warnings(HikariDataSource pool) {
+		List<String> warnings = new ArrayList<>();
+		if(pool.getMinimumIdle() < pool.getMaximumPoolSize()) {
+			warnings.add("minimum-idle " + pool.getMinimumIdle() + " is below maximum-pool-size " + pool.getMaximumPoolSize()
+					+ ", so a burst of requests waits for connections to be opened");
+		}
+		if(!Threading.VIRTUAL.isActive(environment) && pool.getMaximumPoolSize() > requestThreads()) {
+			warnings.add("maximum-pool-size " + pool.getMaximumPoolSize() + " is more than the " + requestThreads()
+					+ " request threads, which hold at most one connection each");
+		}
+		if(pool.getLeakDetectionThreshold() == 0) {
+			warnings.add("leak-detection-threshold is not set, so a connection that is never returned goes unnoticed");
+		}
+		return warnings;
+	}
+
+	private int requestThreads() {
+		return serverProperties.getTomcat().getThreads().getMax();
+	}
+}
@@ -0,0 +1,37 @@
+package com.example.demo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * A read replica's connection pool and its replication lag as last measured by
+ * {@link ReplicaLagMonitor}. Until the first measurement, or while the replica cannot be
+ * read, the lag is {@link #UNKNOWN_LAG}.
+ */
+public class Replica {
+
+	public static final long UNKNOWN_LAG = Long.MAX_VALUE;
+
+	private final HikariDataSource dataSource;
+
+	private volatile long lagMillis = UNKNOWN_LAG;
+
+	public Replica(HikariDataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+
+	public String getName() {
+		return dataSource.getPoolName();
+	}
+
+	public HikariDataSource getDataSource() {
+		return dataSource;
+	}
+
+	public long getLagMillis() {
+		return lagMillis;
+	}
+
+	public void setLagMillis(long lagMillis) {
+		this.lagMillis = lagMillis;
+	}
+}
@@ -0,0 +1,84 @@
+package com.example.demo.datasource;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Measures how far each replica is behind the primary. Every heartbeat interval the time
+ * is written to the primary's {@code replication_heartbeat} row, and a replica's lag is
+ * the age of the copy of that row it has caught up to, so it is known to within one
+ * interval. A replica that cannot be read has an unknown lag. The lags are published as
+ * the {@code replicas.lag} gauge, tagged with the replica.
+ */
+public class ReplicaLagMonitor {
+
+	static final String WRITE_HEARTBEAT = "update replication_heartbeat set beat_millis = ? where id = 1";
+	static final String READ_HEARTBEAT = "select beat_millis from replication_heartbeat where id = 1";
+
+	private final Logger logger = LogManager.getLogger(ReplicaLagMonitor.class);
+
+	private final JdbcTemplate primary;
+	private final List<Replica> replicas;
+	private final long maxLagMillis;
+
+	public ReplicaLagMonitor(DataSource primary, List<Replica> replicas, long maxLagMillis, MeterRegistry meterRegistry) {
+		this.primary = new JdbcTemplate(primary);
+		this.replicas = replicas;
+		this.maxLagMillis = maxLagMillis;
+		for(Replica replica : replicas) {
+			Gauge.builder("replicas.lag", replica,
+					r -> r.getLagMillis() == Replica.UNKNOWN_LAG ? Double.NaN : r.getLagMillis() / 1000.0)
+					.tag("replica", replica.getName())
+					.baseUnit("seconds")
+					.description("How far the replica is behind the primary")
+					.register(meterRegistry);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${replicas.heartbeat-interval-millis:1000}")
+	public void beat() {
+		try {
+			primary.update(WRITE_HEARTBEAT, System.currentTimeMillis());
+		} catch (DataAccessException e) {
+			logger.warn("Could not write the replication heartbeat: {}", e.getMessage());
+		}
+		for(Replica replica : replicas) {
+			measure(replica);
+		}
+	}
+
+	void measure(Replica replica) {
+		long lagMillis;
+		String failure = null;
+		try {
+			Long beatMillis = new JdbcTemplate(replica.getDataSource()).queryForObject(READ_HEARTBEAT, Long.class);
+			lagMillis = Math.max(0, System.currentTimeMillis() - beatMillis);
+		} catch (DataAccessException e) {
+			lagMillis = Replica.UNKNOWN_LAG;
+			failure = e.getMessage();
+		}
+		boolean wasInUse = replica.getLagMillis() <= maxLagMillis;
+		replica.setLagMillis(lagMillis);
+		if(lagMillis <= maxLagMillis) {
+			if(!wasInUse) {
+				logger.info("Replica {} is {} ms behind, sending read-only transactions to it", replica.getName(), lagMillis);
+			}
+		} else if(wasInUse) {
+			if(failure != null) {
+				logger.warn("Replica {} cannot be read, reading from the primary instead: {}", replica.getName(), failure);
+			} else {
+				logger.warn("Replica {} is {} ms behind, reading from the primary until it catches up", replica.getName(), lagMillis);
+			}
+		}
+	}
+}
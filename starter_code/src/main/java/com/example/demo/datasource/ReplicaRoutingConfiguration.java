@@ -0,0 +1,85 @@
+package com.example.demo.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Replaces the single {@code spring.datasource} pool with a primary pool and one pool
+ * per URL in {@code replicas.urls}, routed by {@link ReplicaRoutingDataSource}. Without
+ * {@code replicas.urls} none of this is set up and every query goes to the primary.
+ * <p>
+ * Routing per transaction relies on Hibernate releasing the connection after each
+ * transaction ({@code hibernate.connection.handling_mode} in application.properties).
+ */
+@Configuration
+@ConditionalOnProperty("replicas.urls")
+public class ReplicaRoutingConfiguration {
+
+	@Bean
+	@FlywayDataSource
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	@Bean
+	public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+			@Value("${replicas.urls}") String[] urls,
+			@Value("${replicas.username:}") String username,
+			@Value("${replicas.password:}") String password,
+			@Value("${replicas.max-lag-millis:5000}") long maxLagMillis,
+			Environment environment,
+			MeterRegistry meterRegistry) {
+		List<Replica> replicas = new ArrayList<>();
+		for(String url : urls) {
+			HikariDataSource dataSource = new HikariDataSource();
+			// sized like the primary, by the same profile
+			Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+			dataSource.setPoolName("replica-" + replicas.size());
+			dataSource.setJdbcUrl(url.trim());
+			dataSource.setUsername(username);
+			dataSource.setPassword(password);
+			dataSource.setReadOnly(true);
+			// the replicas are not beans, so Spring Boot does not bind their pool metrics
+			dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+			replicas.add(new Replica(dataSource));
+		}
+		return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagMillis);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+		return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+	}
+
+	@Bean
+	public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource,
+			ReplicaRoutingDataSource replicaRoutingDataSource,
+			@Value("${replicas.max-lag-millis:5000}") long maxLagMillis,
+			MeterRegistry meterRegistry) {
+		return new ReplicaLagMonitor(primaryDataSource, replicaRoutingDataSource.getReplicas(), maxLagMillis, meterRegistry);
+	}
+}
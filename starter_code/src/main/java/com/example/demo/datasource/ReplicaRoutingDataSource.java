@@ -0,0 +1,74 @@
+package com.example.demo.datasource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands the connections of {@code @Transactional(readOnly = true)} work to the replicas in
+ * turn, and everything else, including reads outside a transaction, to the primary. A
+ * replica more than {@code maxLagMillis} behind, or whose lag is unknown, is passed over;
+ * with no replica left the read goes to the primary.
+ * <p>
+ * The read-only flag is only set once the transaction has begun, and beginning one
+ * already takes a connection, so this has to sit behind a
+ * {@link LazyConnectionDataSourceProxy}, which only fetches it for the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+	static final String PRIMARY = "primary";
+
+	private final List<Replica> replicas;
+	private final long maxLagMillis;
+	private final AtomicInteger next = new AtomicInteger();
+
+	public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, long maxLagMillis) {
+		this.replicas = replicas;
+		this.maxLagMillis = maxLagMillis;
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(PRIMARY, primary);
+		for(Replica replica : replicas) {
+			targets.put(replica.getName(), replica.getDataSource());
+		}
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+		setLenientFallback(false);
+	}
+
+	public List<Replica> getReplicas() {
+		return replicas;
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return PRIMARY;
+		}
+		int start = next.getAndIncrement();
+		for(int i = 0; i < replicas.size(); i++) {
+			Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+			if(replica.getLagMillis() <= maxLagMillis) {
+				return replica.getName();
+			}
+		}
+		return PRIMARY;
+	}
+
+	/**
+	 * Closes the replica pools. The primary is a bean of its own and closed with the context.
+	 */
+	@Override
+	public void close() {
+		for(Replica replica : replicas) {
+			replica.getDataSource().close();
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.example.demo.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every call made through a Spring Data repository as the
+ * {@code spring.data.repository.invocations} timer, tagged with the repository, method,
+ * state and exception. Runs last, so the timing covers everything the caller sees,
+ * including cache hits served by {@code @Cacheable} repository methods.
+ */
+@Component
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor, Ordered {
+
+	static final String METRIC_NAME = "spring.data.repository.invocations";
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if(!(bean instanceof Repository)) {
+			return bean;
+		}
+		ProxyFactory proxyFactory = new ProxyFactory(bean);
+		proxyFactory.addAdvice(new TimingInterceptor(repositoryName(bean, beanName)));
+		return proxyFactory.getProxy(ClassUtils.getDefaultClassLoader());
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+
+	private static String repositoryName(Object bean, String beanName) {
+		for(Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(bean.getClass())) {
+			if(Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+				return type.getSimpleName();
+			}
+		}
+		return beanName;
+	}
+
+	/**
+	 * Looks each timer up in the registry once, on the first call that needs it, and keeps
+	 * it for the method, so a repository call costs a map lookup rather than a new meter id.
+	 */
+	private final class TimingInterceptor implements MethodInterceptor {
+
+		private final String repository;
+
+		private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+		private final Map<Method, Map<Class<?>, Timer>> errorTimers = new ConcurrentHashMap<>();
+
+		private TimingInterceptor(String repository) {
+			this.repository = repository;
+		}
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			Method method = invocation.getMethod();
+			if(method.getDeclaringClass() == Object.class) {
+				return invocation.proceed();
+			}
+			long start = System.nanoTime();
+			Object result;
+			try {
+				result = invocation.proceed();
+			} catch (Throwable e) {
+				errorTimer(method, e.getClass()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				throw e;
+			}
+			successTimer(method).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			return result;
+		}
+
+		private Timer successTimer(Method method) {
+			Timer timer = successTimers.get(method);
+			if(timer == null) {
+				timer = successTimers.computeIfAbsent(method, m -> timer(m, "SUCCESS", "None"));
+			}
+			return timer;
+		}
+
+		private Timer errorTimer(Method method, Class<?> exceptionType) {
+			return errorTimers.computeIfAbsent(method, m -> new ConcurrentHashMap<>())
+					.computeIfAbsent(exceptionType, type -> timer(method, "ERROR", type.getSimpleName()));
+		}
+
+		private Timer timer(Method method, String state, String exception) {
+			return Timer.builder(METRIC_NAME)
+					.tag("repository", repository)
+					.tag("method", method.getName())
+					.tag("state", state)
+					.tag("exception", exception)
+					.register(meterRegistry.getObject());
+		}
+	}
+}
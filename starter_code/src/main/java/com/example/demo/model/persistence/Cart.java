@@ -1,21 +1,26 @@
 package com.example.demo.model.persistence;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-
-import javax.persistence.Column;
-import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
-import javax.persistence.Id;
-import javax.persistence.ManyToMany;
-import javax.persistence.OneToMany;
-import javax.persistence.OneToOne;
-import javax.persistence.Table;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MapKey;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
@@ -23,15 +28,20 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 public class Cart {
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_seq")
+	@SequenceGenerator(name = "cart_seq", sequenceName = "cart_seq", allocationSize = 50)
 	@JsonProperty
 	@Column
 	private Long id;
 	
-	@ManyToMany
-	@JsonProperty
-	@Column
-    private List<Item> items;
+	@OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
+	@MapKey(name = "itemId")
+    private Map<Long, CartLine> lines = new LinkedHashMap<>();
+
+	// lines removed since the cart was loaded; adding the item again brings its line back,
+	// because Hibernate would insert a new line before deleting the removed one
+	@Transient
+	private Map<Long, CartLine> removedLines = new HashMap<>();
 	
 	@OneToOne(mappedBy = "cart")
 	@JsonProperty
@@ -40,6 +50,10 @@ public class Cart {
 	@Column
 	@JsonProperty
 	private BigDecimal total;
+
+	@Version
+	@JsonIgnore
+	private Long version;
 	
 	public BigDecimal getTotal() {
 		return total;
@@ -57,6 +71,10 @@ public class Cart {
 		this.user = user;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
 	public Long getId() {
 		return id;
 	}
@@ -65,33 +83,75 @@ public class Cart {
 		this.id = id;
 	}
 
-	public List<Item> getItems() {
-		return items;
+	@JsonProperty
+	public Collection<CartLine> getLines() {
+		return lines.values();
 	}
 
-	public void setItems(List<Item> items) {
-		this.items = items;
+	public CartLine getLine(Long itemId) {
+		return lines.get(itemId);
 	}
-	
+
 	public void addItem(Item item) {
-		if(items == null) {
-			items = new ArrayList<>();
+		addItem(item, 1);
+	}
+
+	public void addItem(Item item, int quantity) {
+		if(quantity <= 0) {
+			return;
 		}
-		items.add(item);
+		CartLine line = lines.get(item.getId());
+		if(line == null) {
+			line = removedLines.remove(item.getId());
+			if(line == null) {
+				line = new CartLine(this, item);
+			} else {
+				line.setQuantity(0);
+				line.setUnitPrice(item.getPrice());
+			}
+			lines.put(item.getId(), line);
+		}
+		line.setQuantity(line.getQuantity() + quantity);
 		if(total == null) {
 			total = new BigDecimal(0);
 		}
-		total = total.add(item.getPrice());
+		total = total.add(line.getUnitPrice().multiply(BigDecimal.valueOf(quantity)));
 	}
-	
+
 	public void removeItem(Item item) {
-		if(items == null) {
-			items = new ArrayList<>();
+		removeItem(item, 1);
+	}
+
+	public void removeItem(Item item, int quantity) {
+		CartLine line = lines.get(item.getId());
+		if(line == null || quantity <= 0) {
+			return;
+		}
+		int removed = Math.min(quantity, line.getQuantity());
+		if(removed == line.getQuantity()) {
+			lines.remove(item.getId());
+			removedLines.put(item.getId(), line);
+		} else {
+			line.setQuantity(line.getQuantity() - removed);
+		}
+		if(total == null) {
+			total = new BigDecimal(0);
+		}
+		total = total.subtract(line.getUnitPrice().multiply(BigDecimal.valueOf(removed)));
+	}
+
+	/**
+	 * Removes the item's line whatever its quantity.
+	 */
+	public void removeLine(Long itemId) {
+		CartLine line = lines.remove(itemId);
+		if(line == null) {
+			return;
 		}
-		items.remove(item);
+		removedLines.put(itemId, line);
 		if(total == null) {
 			total = new BigDecimal(0);
 		}
-		total = total.subtract(item.getPrice());
+		total = total.subtract(line.getSubtotal());
 	}
 }
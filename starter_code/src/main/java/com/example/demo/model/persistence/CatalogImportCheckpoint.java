@@ -0,0 +1,85 @@
+package com.example.demo.model.persistence;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * How far a catalog import has got. It is written in the same transaction as each
+ * chunk of items, so the row count always matches what is committed and a rerun
+ * with the same import id can skip straight past it.
+ */
+@Entity
+@Table(name = "catalog_import_checkpoint")
+public class CatalogImportCheckpoint {
+
+	@Id
+	@Column(name = "import_id", length = 100)
+	private String importId;
+
+	@Column(name = "rows_committed", nullable = false)
+	private long rowsCommitted;
+
+	@Column(nullable = false)
+	private long inserted;
+
+	@Column(nullable = false)
+	private long updated;
+
+	@Column(nullable = false)
+	private long rejected;
+
+	@Column(nullable = false)
+	private boolean completed;
+
+	@Column(name = "updated_at", nullable = false)
+	private Instant updatedAt;
+
+	public CatalogImportCheckpoint() {
+	}
+
+	public CatalogImportCheckpoint(String importId) {
+		this.importId = importId;
+		this.updatedAt = Instant.now();
+	}
+
+	public void advance(int rows, int inserted, int updated, int rejected, boolean completed) {
+		this.rowsCommitted += rows;
+		this.inserted += inserted;
+		this.updated += updated;
+		this.rejected += rejected;
+		this.completed = completed;
+		this.updatedAt = Instant.now();
+	}
+
+	public String getImportId() {
+		return importId;
+	}
+
+	public long getRowsCommitted() {
+		return rowsCommitted;
+	}
+
+	public long getInserted() {
+		return inserted;
+	}
+
+	public long getUpdated() {
+		return updated;
+	}
+
+	public long getRejected() {
+		return rejected;
+	}
+
+	public boolean isCompleted() {
+		return completed;
+	}
+
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.demo.model.persistence;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Remembers which order an {@code Idempotency-Key} produced, so a retried submission
+ * can be answered with that order instead of creating another one. The key is scoped
+ * to the submitting user.
+ */
+@Entity
+@Table(name = "idempotency_record")
+public class IdempotencyRecord implements Persistable<String> {
+
+	@Id
+	@Column(name = "idempotency_key", length = 300)
+	private String key;
+
+	@Column(name = "order_id", nullable = false)
+	private Long orderId;
+
+	@Column(name = "created_at", nullable = false)
+	private Instant createdAt;
+
+	// the key is assigned, so without this save() would merge over an existing record
+	// instead of failing on the duplicate key
+	@Transient
+	private boolean isNew = true;
+
+	public IdempotencyRecord() {
+	}
+
+	public IdempotencyRecord(String key, Long orderId) {
+		this.key = key;
+		this.orderId = orderId;
+		this.createdAt = Instant.now();
+	}
+
+	@Override
+	public String getId() {
+		return key;
+	}
+
+	@Override
+	public boolean isNew() {
+		return isNew;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markNotNew() {
+		isNew = false;
+	}
+
+	public Long getOrderId() {
+		return orderId;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+}
@@ -0,0 +1,97 @@
+package com.example.demo.model.persistence;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import org.hibernate.annotations.Immutable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A single item entry of a {@link UserOrder}. The item's id, name and unit price are
+ * copied from the cart at submission, so the line does not reference the catalog row
+ * and never changes once written.
+ */
+@Entity
+@Immutable
+@Table(name = "order_line")
+public class OrderLine {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_line_seq")
+	@SequenceGenerator(name = "order_line_seq", sequenceName = "order_line_seq", allocationSize = 50)
+	@JsonIgnore
+	private Long id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "order_id", nullable = false)
+	@JsonIgnore
+	private UserOrder order;
+
+	@Column(name = "item_id", nullable = false)
+	@JsonProperty
+	private Long itemId;
+
+	@Column(nullable = false)
+	@JsonProperty
+	private String itemName;
+
+	@Column(nullable = false)
+	@JsonProperty
+	private int quantity;
+
+	@Column(nullable = false)
+	@JsonProperty
+	private BigDecimal unitPrice;
+
+	protected OrderLine() {
+	}
+
+	public OrderLine(UserOrder order, CartLine line) {
+		this.order = order;
+		this.itemId = line.getItemId();
+		this.itemName = line.getItem().getName();
+		this.quantity = line.getQuantity();
+		this.unitPrice = line.getUnitPrice();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public UserOrder getOrder() {
+		return order;
+	}
+
+	public Long getItemId() {
+		return itemId;
+	}
+
+	public String getItemName() {
+		return itemName;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public BigDecimal getUnitPrice() {
+		return unitPrice;
+	}
+
+	@JsonProperty
+	public BigDecimal getSubtotal() {
+		return unitPrice.multiply(BigDecimal.valueOf(quantity));
+	}
+}
@@ -1,10 +1,50 @@
 package com.example.demo.model.persistence.repositories;
 
+import java.util.List;
+import java.util.Optional;
+
+import jakarta.persistence.LockModeType;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.CartLine;
 import com.example.demo.model.persistence.User;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
-	Cart findByUser(User user);
+
+	/**
+	 * Reaches the cart through the user's primary key and {@code cart_id}; the derived
+	 * query would outer join from cart and scan the whole table.
+	 */
+	@Query("select c from User u join u.cart c where u = :user")
+	Cart findByUser(@Param("user") User user);
+
+	/**
+	 * Loads the cart and immediately bumps its version, so the optimistic check runs
+	 * before anything else in the transaction is written.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+	@Query("select c from Cart c where c.id = :id")
+	Optional<Cart> findByIdForUpdate(@Param("id") Long id);
+
+	@Query("select l from CartLine l join fetch l.item where l.cart.id = :cartId")
+	List<CartLine> findLinesWithItems(@Param("cartId") Long cartId);
+
+	/**
+	 * Removes every line of the cart in a single statement. Pending changes are flushed
+	 * first and the persistence context is cleared afterwards, so no stale line is
+	 * written or deleted again.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from CartLine l where l.cart.id = :cartId")
+	int deleteLines(@Param("cartId") Long cartId);
+
+	@Modifying
+	@Query("update Cart c set c.total = 0 where c.id = :cartId")
+	int resetTotal(@Param("cartId") Long cartId);
 }
@@ -0,0 +1,19 @@
+package com.example.demo.model.persistence.repositories;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.model.persistence.CatalogImportCheckpoint;
+
+public interface CatalogImportCheckpointRepository extends JpaRepository<CatalogImportCheckpoint, String> {
+
+	/**
+	 * Not read-only like the inherited lookup, so with read replicas it still goes to the
+	 * primary: an import has to resume after the chunk it last committed.
+	 */
+	@Override
+	@Transactional
+	Optional<CatalogImportCheckpoint> findById(String importId);
+}
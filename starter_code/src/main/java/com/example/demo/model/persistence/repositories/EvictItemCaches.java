@@ -0,0 +1,22 @@
+package com.example.demo.model.persistence.repositories;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+
+/**
+ * Clears every item catalog cache after the annotated write completes.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Caching(evict = {
+		@CacheEvict(cacheNames = ItemRepository.ITEMS_CACHE, allEntries = true),
+		@CacheEvict(cacheNames = ItemRepository.ITEMS_BY_NAME_CACHE, allEntries = true),
+		@CacheEvict(cacheNames = ItemRepository.ITEM_CATALOG_CACHE, allEntries = true)
+})
+@interface EvictItemCaches {
+}
@@ -0,0 +1,28 @@
+package com.example.demo.model.persistence.repositories;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.model.persistence.IdempotencyRecord;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+	/**
+	 * Runs read-write, and so on the primary when there are read replicas: a retried
+	 * submission can arrive before a replica has the first one's record.
+	 */
+	@Override
+	@Transactional
+	Optional<IdempotencyRecord> findById(String key);
+
+	@Modifying
+	@Transactional
+	@Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+	int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
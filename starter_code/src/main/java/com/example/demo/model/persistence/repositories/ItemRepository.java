@@ -1,12 +1,89 @@
 package com.example.demo.model.persistence.repositories;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.example.demo.model.persistence.Item;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+
+	String ITEMS_CACHE = "items";
+	String ITEMS_BY_NAME_CACHE = "itemsByName";
+	String ITEM_CATALOG_CACHE = "itemCatalog";
+
+	@Cacheable(cacheNames = ITEMS_BY_NAME_CACHE, key = "#p0")
 	public List<Item> findByName(String name);
 
+	/**
+	 * Items with any of the given names, oldest first. Not cached: the catalog import
+	 * uses it to match each chunk of rows against the items already stored.
+	 */
+	List<Item> findByNameInOrderByIdAsc(Collection<String> names);
+
+	/**
+	 * Keyset page of the catalog: items with an id strictly greater than {@code afterId},
+	 * in id order. Only the page size of {@code pageable} is used, so no OFFSET is issued.
+	 */
+	List<Item> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+	@Override
+	@Cacheable(cacheNames = ITEMS_CACHE, key = "#p0")
+	Optional<Item> findById(Long id);
+
+	@Override
+	@Cacheable(cacheNames = ITEM_CATALOG_CACHE, key = "'all'")
+	List<Item> findAll();
+
+	@Override
+	@EvictItemCaches
+	<S extends Item> S save(S entity);
+
+	@Override
+	@EvictItemCaches
+	<S extends Item> List<S> saveAll(Iterable<S> entities);
+
+	@Override
+	@EvictItemCaches
+	<S extends Item> S saveAndFlush(S entity);
+
+	@Override
+	@EvictItemCaches
+	<S extends Item> List<S> saveAllAndFlush(Iterable<S> entities);
+
+	@Override
+	@EvictItemCaches
+	void deleteById(Long id);
+
+	@Override
+	@EvictItemCaches
+	void deleteAllById(Iterable<? extends Long> ids);
+
+	@Override
+	@EvictItemCaches
+	void delete(Item entity);
+
+	@Override
+	@EvictItemCaches
+	void deleteAll(Iterable<? extends Item> entities);
+
+	@Override
+	@EvictItemCaches
+	void deleteAll();
+
+	@Override
+	@EvictItemCaches
+	void deleteAllInBatch(Iterable<Item> entities);
+
+	@Override
+	@EvictItemCaches
+	void deleteAllByIdInBatch(Iterable<Long> ids);
+
+	@Override
+	@EvictItemCaches
+	void deleteAllInBatch();
 }
@@ -1,12 +1,53 @@
 package com.example.demo.model.persistence.repositories;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.example.demo.model.persistence.User;
 import com.example.demo.model.persistence.UserOrder;
 
 public interface OrderRepository extends JpaRepository<UserOrder, Long> {
-	List<UserOrder> findByUser(User user);
+
+	String EXPORT_FETCH_SIZE = "500";
+
+	/**
+	 * Loads the user's order history together with its lines and user in a single
+	 * query, so serializing the result does not lazily load each order's lines.
+	 */
+	@Query("select o from UserOrder o join fetch o.user left join fetch o.lines"
+			+ " where o.user = :user order by o.id")
+	List<UserOrder> findByUser(@Param("user") User user);
+
+	/**
+	 * Keyset page of the user's order ids greater than {@code afterId}, in id order.
+	 * Only the page size of {@code pageable} is used. Paging ids first keeps the
+	 * LIMIT in SQL, which a collection fetch join would otherwise force into memory.
+	 */
+	@Query("select o.id from UserOrder o where o.user = :user and o.id > :afterId order by o.id")
+	List<Long> findIdsByUser(@Param("user") User user, @Param("afterId") Long afterId, Pageable pageable);
+
+	@Query("select o from UserOrder o join fetch o.user left join fetch o.lines"
+			+ " where o.id in :ids order by o.id")
+	List<UserOrder> findWithLinesByIdIn(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Forward-only stream over the user's whole history with lines fetched in the same
+	 * query. Must be consumed and closed inside a transaction; callers should detach
+	 * each order once written so the persistence context does not grow with the history.
+	 */
+	@Query("select o from UserOrder o join fetch o.user left join fetch o.lines"
+			+ " where o.user = :user order by o.id")
+	@QueryHints({
+			@QueryHint(name = "org.hibernate.fetchSize", value = EXPORT_FETCH_SIZE),
+			@QueryHint(name = "org.hibernate.readOnly", value = "true") })
+	Stream<UserOrder> streamByUser(@Param("user") User user);
 }
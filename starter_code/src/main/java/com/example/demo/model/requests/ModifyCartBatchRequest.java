@@ -0,0 +1,42 @@
+package com.example.demo.model.requests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ModifyCartBatchRequest {
+
+	@JsonProperty
+	private String username;
+
+	@JsonProperty
+	private List<CartItemChange> changes = new ArrayList<>();
+
+	@JsonProperty
+	private List<Long> removeItemIds = new ArrayList<>();
+
+	public String getUsername() {
+		return username;
+	}
+
+	public void setUsername(String username) {
+		this.username = username;
+	}
+
+	public List<CartItemChange> getChanges() {
+		return changes;
+	}
+
+	public void setChanges(List<CartItemChange> changes) {
+		this.changes = changes;
+	}
+
+	public List<Long> getRemoveItemIds() {
+		return removeItemIds;
+	}
+
+	public void setRemoveItemIds(List<Long> removeItemIds) {
+		this.removeItemIds = removeItemIds;
+	}
+}
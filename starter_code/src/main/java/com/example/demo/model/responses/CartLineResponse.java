@@ -0,0 +1,44 @@
+package com.example.demo.model.responses;
+
+import java.math.BigDecimal;
+
+import com.example.demo.model.persistence.CartLine;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class CartLineResponse {
+
+	@JsonProperty
+	private Long itemId;
+
+	@JsonProperty
+	private int quantity;
+
+	@JsonProperty
+	private BigDecimal unitPrice;
+
+	@JsonProperty
+	private BigDecimal subtotal;
+
+	public CartLineResponse(CartLine line) {
+		this.itemId = line.getItemId();
+		this.quantity = line.getQuantity();
+		this.unitPrice = line.getUnitPrice();
+		this.subtotal = line.getSubtotal();
+	}
+
+	public Long getItemId() {
+		return itemId;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public BigDecimal getUnitPrice() {
+		return unitPrice;
+	}
+
+	public BigDecimal getSubtotal() {
+		return subtotal;
+	}
+}
@@ -0,0 +1,90 @@
+package com.example.demo.model.responses;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.example.demo.model.persistence.CatalogImportCheckpoint;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Totals of a catalog import so far, across every run with the same import id, and
+ * the reasons the first rejected rows of the latest run were skipped. {@code skipped}
+ * marks a run that found the import already completed and read none of its input.
+ */
+public class CatalogImportResult {
+
+	@JsonProperty
+	private String importId;
+
+	@JsonProperty
+	private long rowsCommitted;
+
+	@JsonProperty
+	private long inserted;
+
+	@JsonProperty
+	private long updated;
+
+	@JsonProperty
+	private long rejected;
+
+	@JsonProperty
+	private boolean completed;
+
+	@JsonProperty
+	private boolean skipped;
+
+	@JsonProperty
+	private List<String> errors;
+
+	public CatalogImportResult(CatalogImportCheckpoint checkpoint, List<String> errors, boolean skipped) {
+		this.importId = checkpoint.getImportId();
+		this.rowsCommitted = checkpoint.getRowsCommitted();
+		this.inserted = checkpoint.getInserted();
+		this.updated = checkpoint.getUpdated();
+		this.rejected = checkpoint.getRejected();
+		this.completed = checkpoint.isCompleted();
+		this.skipped = skipped;
+		this.errors = errors;
+	}
+
+	public CatalogImportResult(CatalogImportCheckpoint checkpoint, List<String> errors) {
+		this(checkpoint, errors, false);
+	}
+
+	public CatalogImportResult(CatalogImportCheckpoint checkpoint) {
+		this(checkpoint, Collections.emptyList());
+	}
+
+	public String getImportId() {
+		return importId;
+	}
+
+	public long getRowsCommitted() {
+		return rowsCommitted;
+	}
+
+	public long getInserted() {
+		return inserted;
+	}
+
+	public long getUpdated() {
+		return updated;
+	}
+
+	public long getRejected() {
+		return rejected;
+	}
+
+	public boolean isCompleted() {
+		return completed;
+	}
+
+	public boolean isSkipped() {
+		return skipped;
+	}
+
+	public List<String> getErrors() {
+		return errors;
+	}
+}
@@ -0,0 +1,27 @@
+package com.example.demo.model.responses;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ItemPage {
+
+	@JsonProperty
+	private List<ItemResponse> items;
+
+	@JsonProperty
+	private String nextCursor;
+
+	public ItemPage(List<ItemResponse> items, String nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<ItemResponse> getItems() {
+		return items;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+}
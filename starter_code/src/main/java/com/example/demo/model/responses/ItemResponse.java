@@ -0,0 +1,44 @@
+package com.example.demo.model.responses;
+
+import java.math.BigDecimal;
+
+import com.example.demo.model.persistence.Item;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ItemResponse {
+
+	@JsonProperty
+	private Long id;
+
+	@JsonProperty
+	private String name;
+
+	@JsonProperty
+	private BigDecimal price;
+
+	@JsonProperty
+	private String description;
+
+	public ItemResponse(Item item) {
+		this.id = item.getId();
+		this.name = item.getName();
+		this.price = item.getPrice();
+		this.description = item.getDescription();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public BigDecimal getPrice() {
+		return price;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+}
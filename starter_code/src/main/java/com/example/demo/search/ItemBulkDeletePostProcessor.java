@@ -0,0 +1,67 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+
+/**
+ * Removes items deleted by the {@link ItemRepository} batch deletes from the
+ * {@link ItemSearchIndex}. Those run a single JPQL delete, so no {@code @PostRemove}
+ * reaches {@link ItemIndexListener}; like the listener, the removal is applied once the
+ * surrounding transaction commits.
+ */
+@Component
+public class ItemBulkDeletePostProcessor implements BeanPostProcessor {
+
+	private final ObjectProvider<ItemSearchIndex> itemSearchIndex;
+
+	// a provider: the index itself depends on the repository being post-processed
+	public ItemBulkDeletePostProcessor(ObjectProvider<ItemSearchIndex> itemSearchIndex) {
+		this.itemSearchIndex = itemSearchIndex;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if(!(bean instanceof ItemRepository)) {
+			return bean;
+		}
+		ProxyFactory proxyFactory = new ProxyFactory(bean);
+		proxyFactory.addAdvice(new BulkDeleteInterceptor());
+		return proxyFactory.getProxy(ClassUtils.getDefaultClassLoader());
+	}
+
+	private final class BulkDeleteInterceptor implements MethodInterceptor {
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			String method = invocation.getMethod().getName();
+			Object[] arguments = invocation.getArguments();
+			if(!method.equals("deleteAllInBatch") && !method.equals("deleteInBatch") && !method.equals("deleteAllByIdInBatch")) {
+				return invocation.proceed();
+			}
+			if(arguments.length == 0) {
+				Object result = invocation.proceed();
+				ItemIndexListener.afterCommit(() -> itemSearchIndex.getObject().clear());
+				return result;
+			}
+			// read before the delete, the entities' ids are all that is needed afterwards
+			List<Long> ids = new ArrayList<>();
+			for(Object argument : (Iterable<?>) arguments[0]) {
+				ids.add(argument instanceof Item ? ((Item) argument).getId() : (Long) argument);
+			}
+			Object result = invocation.proceed();
+			ItemIndexListener.afterCommit(() -> ids.forEach(itemSearchIndex.getObject()::remove));
+			return result;
+		}
+	}
+}
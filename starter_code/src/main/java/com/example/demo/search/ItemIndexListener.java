@@ -0,0 +1,51 @@
+package com.example.demo.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.model.persistence.Item;
+
+/**
+ * Keeps the {@link ItemSearchIndex} in step with item writes. Changes are applied
+ * once the surrounding transaction commits, so rolled back writes never reach the index.
+ */
+@Component
+public class ItemIndexListener {
+
+	// lazy: this listener is created while the EntityManagerFactory the index depends on is still being built
+	@Autowired
+	@Lazy
+	private ItemSearchIndex itemSearchIndex;
+
+	@PostPersist
+	@PostUpdate
+	public void onSave(Item item) {
+		afterCommit(() -> itemSearchIndex.index(item));
+	}
+
+	@PostRemove
+	public void onRemove(Item item) {
+		Long id = item.getId();
+		afterCommit(() -> itemSearchIndex.remove(id));
+	}
+
+	static void afterCommit(Runnable action) {
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
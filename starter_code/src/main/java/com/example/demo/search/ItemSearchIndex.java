@@ -0,0 +1,327 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+
+/**
+ * In-memory inverted index over item names and descriptions.
+ * <p>
+ * Terms are kept in a sorted map so prefix queries are a range scan, and every
+ * term is also indexed by its trigrams so misspelled query terms can be matched
+ * against terms within a small edit distance. Matches in the name weigh more
+ * than matches in the description, and exact matches more than prefix or fuzzy
+ * ones.
+ */
+@Component
+public class ItemSearchIndex {
+
+	private static final int NAME_BOOST = 2;
+	private static final int DESCRIPTION_BOOST = 1;
+	private static final int EXACT_SCORE = 3;
+	private static final int PREFIX_SCORE = 2;
+	private static final int FUZZY_SCORE = 1;
+	private static final int MIN_FUZZY_LENGTH = 4;
+	/** trigrams an adjacent transposition, the costliest single edit, can change */
+	private static final int TRIGRAMS_PER_EDIT = 4;
+
+	/** best first: higher score, then lower item id */
+	private static final Comparator<Map.Entry<Long, Integer>> RANKING =
+			Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+					.thenComparing(Map.Entry.comparingByKey());
+
+	private final Logger logger = LogManager.getLogger(ItemSearchIndex.class);
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** term -> (item id -> field boost) */
+	private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+	/** trigram -> terms containing it */
+	private final Map<String, Set<String>> trigrams = new HashMap<>();
+
+	/** item id -> indexed item, with the terms it contributed */
+	private final Map<Long, Item> items = new HashMap<>();
+	private final Map<Long, Set<String>> itemTerms = new HashMap<>();
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		List<Item> all = itemRepository.findAll();
+		lock.writeLock().lock();
+		try {
+			clear();
+			all.forEach(this::addUnlocked);
+		} finally {
+			lock.writeLock().unlock();
+		}
+		logger.info("Search index built with {} items", all.size());
+	}
+
+	public void index(Item item) {
+		lock.writeLock().lock();
+		try {
+			removeUnlocked(item.getId());
+			addUnlocked(item);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			postings.clear();
+			trigrams.clear();
+			items.clear();
+			itemTerms.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Long itemId) {
+		lock.writeLock().lock();
+		try {
+			removeUnlocked(itemId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns up to {@code limit} items matching the query, best match first.
+	 * Every query term must match (exactly, as a prefix, or fuzzily) for an
+	 * item to be returned.
+	 */
+	public List<Item> search(String query, int limit) {
+		List<String> queryTerms = tokenize(query);
+		if(queryTerms.isEmpty()) {
+			return Collections.emptyList();
+		}
+		lock.readLock().lock();
+		try {
+			Map<Long, Integer> scores = null;
+			for(String queryTerm : queryTerms) {
+				Map<Long, Integer> termScores = scoreTerm(queryTerm);
+				if(scores == null) {
+					scores = termScores;
+				} else {
+					scores.keySet().retainAll(termScores.keySet());
+					scores.replaceAll((id, score) -> score + termScores.get(id));
+				}
+				if(scores.isEmpty()) {
+					return Collections.emptyList();
+				}
+			}
+			return top(scores, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return items.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * The {@code limit} best scored items, selected with a heap of at most {@code limit}
+	 * entries whose head is the worst of them, so a short prefix matching much of the
+	 * catalog is not sorted in full.
+	 */
+	private List<Item> top(Map<Long, Integer> scores, int limit) {
+		PriorityQueue<Map.Entry<Long, Integer>> best = new PriorityQueue<>(Math.min(limit, scores.size()), RANKING.reversed());
+		for(Map.Entry<Long, Integer> entry : scores.entrySet()) {
+			if(best.size() < limit) {
+				best.add(entry);
+			} else if(RANKING.compare(entry, best.peek()) < 0) {
+				best.poll();
+				best.add(entry);
+			}
+		}
+		Item[] ranked = new Item[best.size()];
+		for(int i = ranked.length - 1; i >= 0; i--) {
+			ranked[i] = items.get(best.poll().getKey());
+		}
+		return Arrays.asList(ranked);
+	}
+
+	private Map<Long, Integer> scoreTerm(String queryTerm) {
+		Map<Long, Integer> scores = new HashMap<>();
+		collect(scores, queryTerm, EXACT_SCORE);
+		for(String term : postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).keySet()) {
+			collect(scores, term, PREFIX_SCORE);
+		}
+		if(queryTerm.length() >= MIN_FUZZY_LENGTH) {
+			int maxDistance = queryTerm.length() > 7 ? 2 : 1;
+			for(String term : fuzzyCandidates(queryTerm, maxDistance)) {
+				if(!term.startsWith(queryTerm) && editDistance(queryTerm, term, maxDistance) <= maxDistance) {
+					collect(scores, term, FUZZY_SCORE);
+				}
+			}
+		}
+		return scores;
+	}
+
+	private void collect(Map<Long, Integer> scores, String term, int matchScore) {
+		Map<Long, Integer> hits = postings.get(term);
+		if(hits == null) {
+			return;
+		}
+		hits.forEach((id, boost) -> scores.merge(id, matchScore * boost, Math::max));
+	}
+
+	/**
+	 * Terms sharing enough trigrams with the query term to be within {@code maxDistance}
+	 * edits of it. The leading trigram, two spaces and the first letter, is skipped: every
+	 * term starting with that letter has it, so looking it up would visit a large part of
+	 * the vocabulary. An edit changes at most {@link #TRIGRAMS_PER_EDIT} of the remaining
+	 * trigrams, so a term sharing fewer than that allows cannot match.
+	 */
+	Set<String> fuzzyCandidates(String queryTerm, int maxDistance) {
+		Set<String> lookups = trigramsOf(queryTerm);
+		lookups.remove("  " + queryTerm.charAt(0));
+		int minHits = Math.max(1, lookups.size() - TRIGRAMS_PER_EDIT * maxDistance);
+		Map<String, Integer> hits = new HashMap<>();
+		for(String trigram : lookups) {
+			Set<String> terms = trigrams.get(trigram);
+			if(terms != null) {
+				for(String term : terms) {
+					if(Math.abs(term.length() - queryTerm.length()) <= maxDistance) {
+						hits.merge(term, 1, Integer::sum);
+					}
+				}
+			}
+		}
+		Set<String> candidates = new HashSet<>();
+		hits.forEach((term, count) -> {
+			if(count >= minHits) {
+				candidates.add(term);
+			}
+		});
+		return candidates;
+	}
+
+	private void addUnlocked(Item item) {
+		Map<String, Integer> terms = new HashMap<>();
+		tokenize(item.getDescription()).forEach(term -> terms.merge(term, DESCRIPTION_BOOST, Math::max));
+		tokenize(item.getName()).forEach(term -> terms.merge(term, NAME_BOOST, Math::max));
+		terms.forEach((term, boost) -> {
+			Map<Long, Integer> hits = postings.get(term);
+			if(hits == null) {
+				hits = new HashMap<>();
+				postings.put(term, hits);
+				for(String trigram : trigramsOf(term)) {
+					trigrams.computeIfAbsent(trigram, t -> new HashSet<>()).add(term);
+				}
+			}
+			hits.put(item.getId(), boost);
+		});
+		items.put(item.getId(), item);
+		itemTerms.put(item.getId(), terms.keySet());
+	}
+
+	private void removeUnlocked(Long itemId) {
+		items.remove(itemId);
+		Set<String> terms = itemTerms.remove(itemId);
+		if(terms == null) {
+			return;
+		}
+		for(String term : terms) {
+			Map<Long, Integer> hits = postings.get(term);
+			hits.remove(itemId);
+			if(hits.isEmpty()) {
+				postings.remove(term);
+				for(String trigram : trigramsOf(term)) {
+					Set<String> trigramTerms = trigrams.get(trigram);
+					trigramTerms.remove(term);
+					if(trigramTerms.isEmpty()) {
+						trigrams.remove(trigram);
+					}
+				}
+			}
+		}
+	}
+
+	static List<String> tokenize(String text) {
+		if(text == null) {
+			return Collections.emptyList();
+		}
+		List<String> terms = new ArrayList<>(new LinkedHashSet<>(
+				Arrays.asList(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))));
+		terms.remove("");
+		return terms;
+	}
+
+	private static Set<String> trigramsOf(String term) {
+		String padded = "  " + term + " ";
+		Set<String> result = new HashSet<>();
+		for(int i = 0; i + 3 <= padded.length(); i++) {
+			result.add(padded.substring(i, i + 3));
+		}
+		return result;
+	}
+
+	/**
+	 * Edit distance counting insertions, deletions, substitutions and adjacent
+	 * transpositions, giving up early once every cell of a row exceeds {@code max}.
+	 */
+	static int editDistance(String a, String b, int max) {
+		int[] beforePrevious = new int[b.length() + 1];
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for(int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for(int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			int rowMin = current[0];
+			for(int j = 1; j <= b.length(); j++) {
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+				if(i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+					current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+				}
+				rowMin = Math.min(rowMin, current[j]);
+			}
+			if(rowMin > max) {
+				return rowMin;
+			}
+			int[] swap = beforePrevious;
+			beforePrevious = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[b.length()];
+	}
+}
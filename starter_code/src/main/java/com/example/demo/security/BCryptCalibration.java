@@ -0,0 +1,42 @@
+package com.example.demo.security;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the BCrypt cost factor whose hash time on this machine is closest to a target.
+ * Each extra round doubles the hashing time, so one timing at a cheap probe strength is
+ * enough to extrapolate to the others.
+ */
+public final class BCryptCalibration {
+
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 16;
+
+    private static final int PROBE_STRENGTH = 6;
+    private static final int PROBE_RUNS = 5;
+
+    private static final Logger logger = LogManager.getLogger(BCryptCalibration.class);
+
+    private BCryptCalibration() {
+    }
+
+    public static int calibrate(long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_RUNS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double ratio = TimeUnit.MILLISECONDS.toNanos(targetMillis) / (double) best;
+        int strength = PROBE_STRENGTH + (int) Math.round(Math.log(ratio) / Math.log(2));
+        int chosen = Math.max(MIN_STRENGTH, Math.min(MAX_STRENGTH, strength));
+        logger.info("BCrypt strength {} chosen for a {} ms target (strength {} hashed in {} us)",
+                chosen, targetMillis, PROBE_STRENGTH, TimeUnit.NANOSECONDS.toMicros(best));
+        return chosen;
+    }
+}
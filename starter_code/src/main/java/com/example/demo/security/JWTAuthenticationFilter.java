@@ -1,52 +1,94 @@
 package com.example.demo.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
 import com.example.demo.model.persistence.User;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
-import javax.servlet.FilterChain;
-import javax.servlet.ServletException;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
 
 public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
+    private static final Algorithm ALGORITHM = HMAC512(SecurityConstants.SECRET.getBytes());
+
+    private static final ObjectReader CREDENTIALS_READER = new ObjectMapper().readerFor(User.class);
+
     private final Logger logger = LogManager.getLogger(JWTAuthenticationFilter.class);
 
     private AuthenticationManager authenticationManager;
 
-    public JWTAuthenticationFilter(AuthenticationManager authenticationManager) {
+    private final LoginMetrics loginMetrics;
+
+    public JWTAuthenticationFilter(AuthenticationManager authenticationManager, LoginMetrics loginMetrics) {
         this.authenticationManager = authenticationManager;
+        this.loginMetrics = loginMetrics;
     }
 
     @Override
     public Authentication attemptAuthentication(HttpServletRequest req,
                                                 HttpServletResponse res) throws AuthenticationException {
+        long start = System.nanoTime();
         try {
-            User credentials = new ObjectMapper()
-                    .readValue(req.getInputStream(), User.class);
+            User credentials = CREDENTIALS_READER.readValue(req.getInputStream());
 
             return authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             credentials.getUsername(),
                             credentials.getPassword(),
                             new ArrayList<>()));
+        } catch (PasswordHashingRejectedException e) {
+            return rejectWhilePoolIsFull(res);
+        } catch (AuthenticationException e) {
+            // the provider wraps failures outside the password check, e.g. on the
+            // unknown-user path, in InternalAuthenticationServiceException
+            if (isHashingRejection(e)) {
+                return rejectWhilePoolIsFull(res);
+            }
+            throw e;
         } catch (IOException e) {
-            logger.error("Exception while attempting authentication: "  + e.getMessage());
+            logger.error("Exception while attempting authentication: {}", e.getMessage());
             throw new RuntimeException(e);
+        } finally {
+            long total = System.nanoTime() - start;
+            long bcrypt = loginMetrics.recordLogin(total);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Login attempt took {} us, {} us of it in BCrypt",
+                        TimeUnit.NANOSECONDS.toMicros(total), TimeUnit.NANOSECONDS.toMicros(bcrypt));
+            }
+        }
+    }
+
+    private Authentication rejectWhilePoolIsFull(HttpServletResponse res) {
+        logger.warn("Login rejected, password hashing pool is full");
+        res.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        return null;
+    }
+
+    private static boolean isHashingRejection(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingRejectedException) {
+                return true;
+            }
         }
+        return false;
     }
 
     @Override
@@ -55,9 +97,9 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
                                             FilterChain chain,
                                             Authentication auth) throws IOException, ServletException {
         String token = JWT.create()
-                .withSubject(((org.springframework.security.core.userdetails.User) auth.getPrincipal()).getUsername())
+                .withSubject(auth.getName())
                 .withExpiresAt(new Date(System.currentTimeMillis() + SecurityConstants.EXPIRATION_TIME))
-                .sign(HMAC512(SecurityConstants.SECRET.getBytes()));
+                .sign(ALGORITHM);
         res.addHeader(SecurityConstants.HEADER_STRING, SecurityConstants.TOKEN_PREFIX + token);
     }
 }
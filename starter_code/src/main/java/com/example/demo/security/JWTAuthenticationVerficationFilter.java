@@ -1,27 +1,65 @@
 package com.example.demo.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
-import javax.servlet.FilterChain;
-import javax.servlet.ServletException;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
 import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
 
 public class JWTAuthenticationVerficationFilter extends BasicAuthenticationFilter {
 
+    private static final JWTVerifier VERIFIER = JWT.require(HMAC512(SecurityConstants.SECRET.getBytes())).build();
+
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+    private static final long VERIFIED_TOKEN_CACHE_TTL_MINUTES = 10;
+
     private final AuthenticationManager authenticationManager;
 
-    public JWTAuthenticationVerficationFilter(AuthenticationManager authenticationManager) {
+    // Keyed by the raw token: the map only needs its hashCode, while a cryptographic
+    // digest would cost about as much as the signature check this cache avoids.
+    private final Cache<String, VerifiedToken> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_TOKEN_CACHE_SIZE)
+            .expireAfterWrite(VERIFIED_TOKEN_CACHE_TTL_MINUTES, TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    public JWTAuthenticationVerficationFilter(AuthenticationManager authenticationManager, MeterRegistry meterRegistry) {
         super(authenticationManager);
         this.authenticationManager = authenticationManager;
+        this.cachedTimer = verifyTimer(meterRegistry, "cached");
+        this.verifiedTimer = verifyTimer(meterRegistry, "verified");
+        this.rejectedTimer = verifyTimer(meterRegistry, "rejected");
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtVerifiedTokens",
+                "cache.manager", "security", "name", "jwtVerifiedTokens");
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("security.jwt.verify")
+                .description("JWT verification on authenticated requests")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     @Override
@@ -43,9 +81,7 @@ public class JWTAuthenticationVerficationFilter extends BasicAuthenticationFilte
     private UsernamePasswordAuthenticationToken getAuthentication(HttpServletRequest req) {
         String token = req.getHeader(SecurityConstants.HEADER_STRING);
         if (token != null) {
-            String user = JWT.require(HMAC512(SecurityConstants.SECRET.getBytes())).build()
-                    .verify(token.replace(SecurityConstants.TOKEN_PREFIX, ""))
-                    .getSubject();
+            String user = verify(token.replace(SecurityConstants.TOKEN_PREFIX, ""));
             if (user != null) {
                 return new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>());
             }
@@ -53,4 +89,41 @@ public class JWTAuthenticationVerficationFilter extends BasicAuthenticationFilte
         }
         return null;
     }
+
+    /**
+     * Returns the subject of the token, checking the signature only the first time a
+     * token is seen. Cached tokens are re-verified once past their expiry, so an
+     * expired token fails exactly as it would without the cache.
+     */
+    private String verify(String token) {
+        long start = System.nanoTime();
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached.subject;
+        }
+        DecodedJWT jwt;
+        try {
+            jwt = VERIFIER.verify(token);
+        } catch (JWTVerificationException e) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        String subject = jwt.getSubject();
+        if (subject != null && jwt.getExpiresAt() != null) {
+            verifiedTokens.put(token, new VerifiedToken(subject, jwt.getExpiresAt().getTime()));
+        }
+        verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return subject;
+    }
+
+    private static final class VerifiedToken {
+        private final String subject;
+        private final long expiresAt;
+
+        private VerifiedToken(String subject, long expiresAt) {
+            this.subject = subject;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
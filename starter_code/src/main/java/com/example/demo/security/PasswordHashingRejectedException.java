@@ -0,0 +1,12 @@
+package com.example.demo.security;
+
+/**
+ * Thrown when the password hashing pool is saturated and cannot take more work.
+ * Callers answer with 429 Too Many Requests.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException() {
+        super("Password hashing pool is full");
+    }
+}
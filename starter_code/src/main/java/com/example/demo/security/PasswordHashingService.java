@@ -0,0 +1,124 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password hashing and verification on a dedicated, bounded pool so that
+ * bursts of sign-ups and logins cannot take every CPU away from the request threads.
+ * When the pool and its queue are both full the work is refused with a
+ * {@link PasswordHashingRejectedException} instead of queueing without bound.
+ */
+public class PasswordHashingService implements PasswordEncoder, MeterBinder {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile Timer encodeTimer;
+
+    public PasswordHashingService(PasswordEncoder delegate, int poolSize, int queueCapacity) {
+        this.delegate = delegate;
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory,
+                (runnable, pool) -> {
+                    rejected.increment();
+                    throw new PasswordHashingRejectedException();
+                });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("security.password.hashing.queue", this, PasswordHashingService::getQueueDepth)
+                .description("Hashing tasks waiting for a pool thread")
+                .register(registry);
+        Gauge.builder("security.password.hashing.active", this, PasswordHashingService::getActiveCount)
+                .description("Pool threads currently hashing")
+                .register(registry);
+        Gauge.builder("security.password.hashing.pool.size", this, PasswordHashingService::getPoolSize)
+                .register(registry);
+        FunctionCounter.builder("security.password.hashing.rejected", this, PasswordHashingService::getRejectedCount)
+                .description("Hashing tasks refused because the pool and its queue were full")
+                .register(registry);
+        encodeTimer = Timer.builder("security.bcrypt.encode")
+                .description("BCrypt password hashing, including the wait for a pool thread")
+                .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        Timer timer = encodeTimer;
+        if (timer == null) {
+            return run(() -> delegate.encode(rawPassword));
+        }
+        long start = System.nanoTime();
+        try {
+            return run(() -> delegate.encode(rawPassword));
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future = executor.submit(task);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password encoder used for login that reports the time of every hash
+ * verification to {@link LoginMetrics}.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final LoginMetrics loginMetrics;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, LoginMetrics loginMetrics) {
+        this.delegate = delegate;
+        this.loginMetrics = loginMetrics;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            loginMetrics.recordBCryptVerification(System.nanoTime() - start);
+        }
+    }
+}
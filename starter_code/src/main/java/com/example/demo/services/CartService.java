@@ -0,0 +1,99 @@
+package com.example.demo.services;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.repositories.CartRepository;
+
+/**
+ * Applies cart mutations atomically. Each attempt loads the cart, bumping its
+ * version before any line is written, applies the mutation and flushes in its own
+ * transaction. Three mechanisms cover different parts of the problem:
+ * <ul>
+ * <li>The row lock taken by {@link CartRepository#findByIdForUpdate} makes the database
+ * the arbiter between application instances: a second transaction waits for the first
+ * to commit and then reads its lines and total, so no update is lost.</li>
+ * <li>A striped lock makes updates of the same cart within this instance wait in memory
+ * instead of on that row lock. A waiting update then holds no pool connection, so a
+ * burst on one cart cannot take every connection from requests for other carts.</li>
+ * <li>Waiting on another instance's row lock can still time out, and a write that does
+ * not take the row lock fails the {@code @Version} check. Either rolls the attempt back,
+ * and it is retried against the fresh state after a jittered exponential backoff, up
+ * to {@link #MAX_ATTEMPTS} attempts.</li>
+ * </ul>
+ */
+@Service
+public class CartService {
+
+	static final int MAX_ATTEMPTS = 10;
+	private static final long BASE_BACKOFF_MILLIS = 1;
+	private static final long MAX_BACKOFF_MILLIS = 50;
+	private static final int LOCK_STRIPES = 64;
+
+	private final Logger logger = LogManager.getLogger(CartService.class);
+
+	private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	public CartService() {
+		for(int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * @throws ConcurrencyFailureException if every attempt lost to a concurrent update
+	 */
+	public Cart update(Long cartId, Consumer<Cart> mutation) {
+		Lock lock = locks[Math.floorMod(cartId.hashCode(), LOCK_STRIPES)];
+		for(int attempt = 1; ; attempt++) {
+			lock.lock();
+			try {
+				return transactionTemplate.execute(status -> {
+					Cart cart = cartRepository.findByIdForUpdate(cartId)
+							.orElseThrow(() -> new IllegalStateException("Cart " + cartId + " not found"));
+					mutation.accept(cart);
+					cartRepository.saveAndFlush(cart);
+					return cart;
+				});
+			} catch (ConcurrencyFailureException e) {
+				if(attempt >= MAX_ATTEMPTS) {
+					logger.error("Giving up on cart {} after {} conflicting attempts", cartId, attempt);
+					throw e;
+				}
+				logger.debug("Concurrent update of cart {}, retrying (attempt {})", cartId, attempt);
+			} finally {
+				lock.unlock();
+			}
+			backoff(attempt);
+		}
+	}
+
+	/**
+	 * Sleeps for a jittered exponential backoff before the next attempt.
+	 */
+	static void backoff(int attempt) {
+		try {
+			long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << attempt);
+			Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while retrying a cart transaction", e);
+		}
+	}
+}
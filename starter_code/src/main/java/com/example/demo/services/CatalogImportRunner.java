@@ -0,0 +1,109 @@
+package com.example.demo.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.model.responses.CatalogImportResult;
+
+/**
+ * Runs a catalog import from the command line:
+ * <pre>
+ * java -jar app.jar --catalog.import.file=catalog.csv
+ * </pre>
+ * The format follows the file extension unless {@code catalog.import.format} is set. The
+ * import id defaults to the file name with its size and modification time, so running the
+ * same command again after an interruption resumes the import while an updated file starts
+ * a new one. The application exits once the import is done unless {@code catalog.import.exit}
+ * is false: with 0 on success, 1 on failure and {@value #SKIPPED_EXIT_CODE} when the import
+ * had already completed and the file was not read.
+ */
+@Component
+@ConditionalOnProperty("catalog.import.file")
+public class CatalogImportRunner implements ApplicationRunner {
+
+	public static final int SKIPPED_EXIT_CODE = 2;
+
+	private final Logger logger = LogManager.getLogger(CatalogImportRunner.class);
+
+	@Autowired
+	private CatalogImportService catalogImportService;
+
+	@Autowired
+	private ConfigurableApplicationContext context;
+
+	@Value("${catalog.import.file}")
+	private String file;
+
+	@Value("${catalog.import.format:}")
+	private String format;
+
+	@Value("${catalog.import.id:}")
+	private String importId;
+
+	@Value("${catalog.import.exit:true}")
+	private boolean exit;
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		int exitCode = runImport();
+		if(exit) {
+			System.exit(SpringApplication.exit(context, () -> exitCode));
+		}
+	}
+
+	int runImport() {
+		Path path = Paths.get(file);
+		String name = path.getFileName().toString();
+		String id = importId;
+		try {
+			if(id.isEmpty()) {
+				id = defaultImportId(path, name);
+			}
+			CatalogImportResult result;
+			try(InputStream in = Files.newInputStream(path)) {
+				result = catalogImportService.importCatalog(id, format(name), in);
+			}
+			if(result.isSkipped()) {
+				logger.warn("Catalog import {} has already completed; {} was not imported again", id, path);
+				return SKIPPED_EXIT_CODE;
+			}
+			return 0;
+		} catch (Exception e) {
+			logger.error("Catalog import {} from {} failed", id, path, e);
+			return 1;
+		}
+	}
+
+	private static String defaultImportId(Path path, String name) throws IOException {
+		String version = "@" + Files.size(path) + "-" + Files.getLastModifiedTime(path).toMillis();
+		int nameLength = Math.min(name.length(), CatalogImportService.MAX_IMPORT_ID_LENGTH - version.length());
+		return name.substring(0, nameLength) + version;
+	}
+
+	private CatalogImportService.Format format(String name) {
+		if(format.isEmpty()) {
+			return name.toLowerCase(Locale.ROOT).endsWith(".csv") ? CatalogImportService.Format.CSV : CatalogImportService.Format.NDJSON;
+		}
+		for(CatalogImportService.Format candidate : CatalogImportService.Format.values()) {
+			if(candidate.name().equalsIgnoreCase(format)) {
+				return candidate;
+			}
+		}
+		throw new InvalidCatalogImportException("Unknown catalog format: " + format);
+	}
+}
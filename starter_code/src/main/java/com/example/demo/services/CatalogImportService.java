@@ -0,0 +1,395 @@
+package com.example.demo.services;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.model.persistence.CatalogImportCheckpoint;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.repositories.CatalogImportCheckpointRepository;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.model.responses.CatalogImportResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Loads items from a CSV or NDJSON stream. Rows are read one at a time and written in
+ * chunks, each chunk in its own transaction, so memory use depends on the chunk size
+ * rather than on the size of the catalog.
+ * <p>
+ * A row updates the price and description of the item with the same name, or inserts
+ * a new item if there is none. Rows with a missing or invalid field are rejected and
+ * counted without stopping the import. Every chunk commits together with the import's
+ * checkpoint, so running an interrupted import again with the same id carries on after
+ * the last committed row.
+ */
+@Service
+public class CatalogImportService {
+
+	public enum Format { CSV, NDJSON }
+
+	/** the length of the checkpoint's import_id column */
+	public static final int MAX_IMPORT_ID_LENGTH = 100;
+
+	static final int MAX_REPORTED_ERRORS = 100;
+	static final int MAX_TEXT_LENGTH = 255;
+	static final int PRICE_SCALE = 2;
+	static final int PRICE_INTEGER_DIGITS = 17;
+	static final long PROGRESS_LOG_ROWS = 100_000;
+
+	private final Logger logger = LogManager.getLogger(CatalogImportService.class);
+
+	private final Set<String> runningImports = ConcurrentHashMap.newKeySet();
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private CatalogImportCheckpointRepository checkpointRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Value("${catalog.import.chunk-size:1000}")
+	private int chunkSize = 1000;
+
+	/**
+	 * Imports the rows of {@code in}, skipping those an earlier run of the same import
+	 * already committed. An import that has completed is not run again: the result is
+	 * marked {@link CatalogImportResult#isSkipped() skipped} and {@code in} is not read.
+	 *
+	 * @throws InvalidCatalogImportException if the id is empty or too long, or a CSV header
+	 *         lacks one of the item columns
+	 * @throws ImportAlreadyRunningException if an import with this id is already running
+	 */
+	public CatalogImportResult importCatalog(String importId, Format format, InputStream in) throws IOException {
+		if(importId == null || importId.isEmpty() || importId.length() > MAX_IMPORT_ID_LENGTH) {
+			throw new InvalidCatalogImportException("Import id must be 1 to " + MAX_IMPORT_ID_LENGTH + " characters");
+		}
+		if(!runningImports.add(importId)) {
+			throw new ImportAlreadyRunningException(importId);
+		}
+		try {
+			return run(importId, format, in);
+		} finally {
+			runningImports.remove(importId);
+		}
+	}
+
+	public Optional<CatalogImportResult> findImport(String importId) {
+		return checkpointRepository.findById(importId).map(CatalogImportResult::new);
+	}
+
+	private CatalogImportResult run(String importId, Format format, InputStream in) throws IOException {
+		CatalogImportCheckpoint checkpoint = checkpointRepository.findById(importId)
+				.orElseGet(() -> new CatalogImportCheckpoint(importId));
+		if(checkpoint.isCompleted()) {
+			logger.warn("Catalog import {} has already completed; skipped without reading its input", importId);
+			return new CatalogImportResult(checkpoint, Collections.emptyList(), true);
+		}
+		long resumeAfter = checkpoint.getRowsCommitted();
+		if(resumeAfter > 0) {
+			logger.info("Resuming catalog import {} after row {}", importId, resumeAfter);
+		}
+		List<String> errors = new ArrayList<>();
+		List<CatalogRow> chunk = new ArrayList<>(chunkSize);
+		long rowNumber = 0;
+		long nextProgressLog = resumeAfter + PROGRESS_LOG_ROWS;
+		try(RowReader rows = format == Format.CSV ? new CsvRowReader(in) : new NdjsonRowReader(in)) {
+			CatalogRow row;
+			while((row = rows.next(rowNumber + 1)) != null) {
+				rowNumber++;
+				if(rowNumber <= resumeAfter) {
+					continue;
+				}
+				validate(row);
+				if(row.error != null) {
+					reject(importId, row, errors);
+				}
+				chunk.add(row);
+				if(chunk.size() == chunkSize) {
+					checkpoint = commit(importId, chunk, false);
+					chunk.clear();
+					logger.debug("Catalog import {}: {} rows committed", importId, checkpoint.getRowsCommitted());
+					if(checkpoint.getRowsCommitted() >= nextProgressLog) {
+						logger.info("Catalog import {}: {} rows committed, {} inserted, {} updated, {} rejected",
+								importId, checkpoint.getRowsCommitted(), checkpoint.getInserted(),
+								checkpoint.getUpdated(), checkpoint.getRejected());
+						nextProgressLog += PROGRESS_LOG_ROWS;
+					}
+				}
+			}
+		}
+		checkpoint = commit(importId, chunk, true);
+		logger.info("Catalog import {} completed: {} rows, {} inserted, {} updated, {} rejected",
+				importId, checkpoint.getRowsCommitted(), checkpoint.getInserted(),
+				checkpoint.getUpdated(), checkpoint.getRejected());
+		return new CatalogImportResult(checkpoint, errors);
+	}
+
+	private CatalogImportCheckpoint commit(String importId, List<CatalogRow> rows, boolean completed) {
+		CatalogImportCheckpoint committed = transactionTemplate.execute(status -> {
+			Set<String> names = new HashSet<>();
+			for(CatalogRow row : rows) {
+				if(row.error == null) {
+					names.add(row.name);
+				}
+			}
+			// when several items share a name, the oldest is the one kept up to date
+			Map<String, Item> itemsByName = new HashMap<>();
+			if(!names.isEmpty()) {
+				for(Item item : itemRepository.findByNameInOrderByIdAsc(names)) {
+					itemsByName.putIfAbsent(item.getName(), item);
+				}
+			}
+			List<Item> changed = new ArrayList<>();
+			int inserted = 0;
+			int rejected = 0;
+			for(CatalogRow row : rows) {
+				if(row.error != null) {
+					rejected++;
+					continue;
+				}
+				Item item = itemsByName.get(row.name);
+				if(item == null) {
+					item = new Item();
+					item.setName(row.name);
+					itemsByName.put(row.name, item);
+					inserted++;
+				}
+				item.setPrice(row.price);
+				item.setDescription(row.description);
+				changed.add(item);
+			}
+			// also evicts the item caches, which updates through dirty checking alone would not
+			itemRepository.saveAll(changed);
+			CatalogImportCheckpoint checkpoint = checkpointRepository.findById(importId)
+					.orElseGet(() -> new CatalogImportCheckpoint(importId));
+			checkpoint.advance(rows.size(), inserted, changed.size() - inserted, rejected, completed);
+			return checkpointRepository.save(checkpoint);
+		});
+		// with open-in-view the request's EntityManager outlives each chunk's transaction,
+		// and would otherwise keep every item of the import managed until the request ends
+		entityManager.clear();
+		return committed;
+	}
+
+	private void reject(String importId, CatalogRow row, List<String> errors) {
+		if(errors.size() < MAX_REPORTED_ERRORS) {
+			String error = "row " + row.number + ": " + row.error;
+			errors.add(error);
+			logger.warn("Catalog import {} rejected {}", importId, error);
+			if(errors.size() == MAX_REPORTED_ERRORS) {
+				logger.warn("Catalog import {}: further rejected rows are counted but not reported", importId);
+			}
+		}
+	}
+
+	static void validate(CatalogRow row) {
+		if(row.error != null) {
+			return;
+		}
+		row.name = row.name == null ? "" : row.name.trim();
+		row.description = row.description == null ? "" : row.description.trim();
+		if(row.name.isEmpty()) {
+			row.error = "name is required";
+		} else if(row.name.length() > MAX_TEXT_LENGTH) {
+			row.error = "name is longer than " + MAX_TEXT_LENGTH + " characters";
+		} else if(row.description.isEmpty()) {
+			row.error = "description is required";
+		} else if(row.description.length() > MAX_TEXT_LENGTH) {
+			row.error = "description is longer than " + MAX_TEXT_LENGTH + " characters";
+		} else if(row.priceText == null || row.priceText.trim().isEmpty()) {
+			row.error = "price is required";
+		} else {
+			try {
+				row.price = new BigDecimal(row.priceText.trim());
+			} catch (NumberFormatException e) {
+				row.error = "price is not a number: " + row.priceText;
+				return;
+			}
+			if(row.price.signum() < 0) {
+				row.error = "price must not be negative";
+			} else if(row.price.stripTrailingZeros().scale() > PRICE_SCALE) {
+				row.error = "price has more than " + PRICE_SCALE + " decimal places";
+			} else if(row.price.precision() - row.price.scale() > PRICE_INTEGER_DIGITS) {
+				row.error = "price is too large";
+			}
+		}
+	}
+
+	static class CatalogRow {
+
+		final long number;
+		String name;
+		String priceText;
+		String description;
+		BigDecimal price;
+		String error;
+
+		CatalogRow(long number, String name, String priceText, String description) {
+			this.number = number;
+			this.name = name;
+			this.priceText = priceText;
+			this.description = description;
+		}
+
+		static CatalogRow rejected(long number, String error) {
+			CatalogRow row = new CatalogRow(number, null, null, null);
+			row.error = error;
+			return row;
+		}
+	}
+
+	private interface RowReader extends Closeable {
+
+		/**
+		 * The next row, numbered {@code number}, or {@code null} at the end of the input.
+		 */
+		CatalogRow next(long number) throws IOException;
+	}
+
+	/**
+	 * CSV with a header row naming the {@code name}, {@code price} and {@code description}
+	 * columns, in any order. Other columns are ignored.
+	 */
+	private static class CsvRowReader implements RowReader {
+
+		private final CsvReader csv;
+		private final int nameColumn;
+		private final int priceColumn;
+		private final int descriptionColumn;
+		private final int columns;
+
+		CsvRowReader(InputStream in) throws IOException {
+			csv = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+			List<String> header;
+			try {
+				header = csv.read();
+			} catch (EOFException e) {
+				csv.close();
+				throw new InvalidCatalogImportException("CSV header has an unterminated quoted field");
+			}
+			if(header == null) {
+				nameColumn = priceColumn = descriptionColumn = columns = 0;
+				return;
+			}
+			List<String> normalized = new ArrayList<>();
+			for(String column : header) {
+				normalized.add(column.trim().toLowerCase(Locale.ROOT));
+			}
+			nameColumn = normalized.indexOf("name");
+			priceColumn = normalized.indexOf("price");
+			descriptionColumn = normalized.indexOf("description");
+			if(nameColumn < 0 || priceColumn < 0 || descriptionColumn < 0) {
+				csv.close();
+				throw new InvalidCatalogImportException("CSV header must name the name, price and description columns");
+			}
+			columns = Math.max(nameColumn, Math.max(priceColumn, descriptionColumn)) + 1;
+		}
+
+		@Override
+		public CatalogRow next(long number) throws IOException {
+			if(columns == 0) {
+				return null;
+			}
+			List<String> record;
+			try {
+				record = csv.read();
+			} catch (EOFException e) {
+				// the quoted field ran to the end of the input, so this is also the last row
+				return CatalogRow.rejected(number, "unterminated quoted field");
+			}
+			if(record == null) {
+				return null;
+			}
+			if(record.size() < columns) {
+				return CatalogRow.rejected(number, "expected at least " + columns + " columns but found " + record.size());
+			}
+			return new CatalogRow(number, record.get(nameColumn), record.get(priceColumn), record.get(descriptionColumn));
+		}
+
+		@Override
+		public void close() throws IOException {
+			csv.close();
+		}
+	}
+
+	/**
+	 * One JSON object per line with {@code name}, {@code price} and {@code description}
+	 * fields. The price may be a number or a string; blank lines are skipped.
+	 */
+	private class NdjsonRowReader implements RowReader {
+
+		private final BufferedReader reader;
+		private final ObjectReader jsonReader = objectMapper.reader()
+				.with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+		NdjsonRowReader(InputStream in) {
+			reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public CatalogRow next(long number) throws IOException {
+			String line;
+			do {
+				line = reader.readLine();
+				if(line == null) {
+					return null;
+				}
+			} while(line.trim().isEmpty());
+			JsonNode node;
+			try {
+				node = jsonReader.readTree(line);
+			} catch (JsonProcessingException e) {
+				return CatalogRow.rejected(number, "malformed JSON");
+			}
+			if(!node.isObject()) {
+				return CatalogRow.rejected(number, "expected a JSON object");
+			}
+			JsonNode price = node.path("price");
+			return new CatalogRow(number, node.path("name").textValue(),
+					price.isNumber() || price.isTextual() ? price.asText() : null,
+					node.path("description").textValue());
+		}
+
+		@Override
+		public void close() throws IOException {
+			reader.close();
+		}
+	}
+}
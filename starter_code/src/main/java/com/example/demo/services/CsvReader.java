@@ -0,0 +1,73 @@
+package com.example.demo.services;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 records one at a time: comma separated fields, optionally in double
+ * quotes, with {@code ""} standing for a quote and line breaks allowed inside quotes.
+ * Blank lines between records are skipped.
+ */
+class CsvReader implements Closeable {
+
+	private final Reader reader;
+
+	CsvReader(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * The fields of the next record, or {@code null} at the end of the input.
+	 */
+	List<String> read() throws IOException {
+		int c = reader.read();
+		while(c == '\r' || c == '\n') {
+			c = reader.read();
+		}
+		if(c == -1) {
+			return null;
+		}
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		while(true) {
+			if(quoted) {
+				if(c == -1) {
+					throw new EOFException("Unterminated quoted field");
+				}
+				if(c == '"') {
+					c = reader.read();
+					if(c == '"') {
+						field.append('"');
+						c = reader.read();
+					} else {
+						quoted = false;
+					}
+					continue;
+				}
+				field.append((char) c);
+			} else if(c == '"' && field.length() == 0) {
+				quoted = true;
+			} else if(c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else if(c == '\n' || c == '\r' || c == -1) {
+				// a '\n' following '\r' is skipped as a blank line by the next read
+				fields.add(field.toString());
+				return fields;
+			} else {
+				field.append((char) c);
+			}
+			c = reader.read();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
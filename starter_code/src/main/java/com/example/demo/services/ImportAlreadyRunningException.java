@@ -0,0 +1,12 @@
+package com.example.demo.services;
+
+/**
+ * Thrown when a catalog import is started while an import with the same id is still
+ * running. Callers answer with 409 Conflict.
+ */
+public class ImportAlreadyRunningException extends RuntimeException {
+
+	public ImportAlreadyRunningException(String importId) {
+		super("Catalog import " + importId + " is already running");
+	}
+}
@@ -0,0 +1,12 @@
+package com.example.demo.services;
+
+/**
+ * Thrown when a catalog import cannot start: its id is missing or too long, or the CSV
+ * header does not name the item columns. Callers answer with 400 Bad Request.
+ */
+public class InvalidCatalogImportException extends RuntimeException {
+
+	public InvalidCatalogImportException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,141 @@
+package com.example.demo.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.model.persistence.OrderLine;
+import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.UserOrder;
+import com.example.demo.model.persistence.repositories.OrderRepository;
+import com.example.demo.model.responses.OrderResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes a user's whole order history to an output stream. Orders are read through a
+ * forward-only cursor inside a read-only transaction and detached once written, so
+ * memory use does not depend on the length of the history.
+ */
+@Service
+public class OrderExportService {
+
+	static final String CSV_HEADER = "order_id,username,item_id,item_name,quantity,unit_price,order_total";
+
+	private final Logger logger = LogManager.getLogger(OrderExportService.class);
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * One JSON order per line, in the shape the order endpoints return.
+	 */
+	public void writeNdjson(User user, OutputStream out) throws IOException {
+		export(user, out, null, (order, writer) -> {
+			writer.write(objectMapper.writeValueAsString(new OrderResponse(order)));
+			writer.write('\n');
+		});
+	}
+
+	/**
+	 * One row per order line; an order without lines gets a single row with the
+	 * line columns left empty.
+	 */
+	public void writeCsv(User user, OutputStream out) throws IOException {
+		export(user, out, CSV_HEADER, (order, writer) -> {
+			if(order.getLines().isEmpty()) {
+				writeCsvRow(writer, order, null);
+			} else {
+				for(OrderLine line : order.getLines()) {
+					writeCsvRow(writer, order, line);
+				}
+			}
+		});
+	}
+
+	private void export(User user, OutputStream out, String header, OrderWriter orderWriter) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		if(header != null) {
+			writer.write(header);
+			writer.write('\n');
+		}
+		TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		readOnly.setReadOnly(true);
+		try {
+			int count = readOnly.execute(status -> {
+				int written = 0;
+				try(Stream<UserOrder> orders = orderRepository.streamByUser(user)) {
+					for(UserOrder order : (Iterable<UserOrder>) orders::iterator) {
+						orderWriter.write(order, writer);
+						entityManager.detach(order);
+						written++;
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				return written;
+			});
+			logger.info("Exported {} orders for user: {}", count, user.getUsername());
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		writer.flush();
+	}
+
+	private static void writeCsvRow(Writer writer, UserOrder order, OrderLine line) throws IOException {
+		writer.write(String.valueOf(order.getId()));
+		writer.write(',');
+		writer.write(csvField(order.getUser().getUsername()));
+		writer.write(',');
+		if(line != null) {
+			writer.write(String.valueOf(line.getItemId()));
+			writer.write(',');
+			writer.write(csvField(line.getItemName()));
+			writer.write(',');
+			writer.write(String.valueOf(line.getQuantity()));
+			writer.write(',');
+			writer.write(line.getUnitPrice().toPlainString());
+		} else {
+			writer.write(",,,");
+		}
+		writer.write(',');
+		writer.write(order.getTotal() == null ? "" : order.getTotal().toPlainString());
+		writer.write('\n');
+	}
+
+	static String csvField(String value) {
+		if(value == null) {
+			return "";
+		}
+		if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private interface OrderWriter {
+		void write(UserOrder order, Writer writer) throws IOException;
+	}
+}
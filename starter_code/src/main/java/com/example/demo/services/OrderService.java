@@ -0,0 +1,151 @@
+package com.example.demo.services;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.IdempotencyRecord;
+import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.UserOrder;
+import com.example.demo.model.persistence.repositories.CartRepository;
+import com.example.demo.model.persistence.repositories.IdempotencyRecordRepository;
+import com.example.demo.model.persistence.repositories.OrderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Submits orders, deduplicating retries that carry the same idempotency key. Recent keys
+ * are answered from a bounded in-memory cache; older ones, or ones submitted through
+ * another instance, from the idempotency records written together with each order.
+ * <p>
+ * A submission locks the cart, writes the order with its lines and empties the cart in
+ * one transaction, so a cart is never ordered twice and a concurrent cart update either
+ * lands before the order is taken or in the emptied cart. Locking the cart bumps its
+ * version and can time out behind another instance's cart update; like
+ * {@link CartService}, a submission that loses such a race is rolled back and retried
+ * against the fresh cart, up to {@link CartService#MAX_ATTEMPTS} attempts.
+ */
+@Service
+public class OrderService {
+
+	static final int IDEMPOTENCY_CACHE_SIZE = 10_000;
+	static final long IDEMPOTENCY_CACHE_TTL_MINUTES = 60;
+
+	private final Logger logger = LogManager.getLogger(OrderService.class);
+
+	private final Cache<String, Long> submittedOrderIds = Caffeine.newBuilder()
+			.maximumSize(IDEMPOTENCY_CACHE_SIZE)
+			.expireAfterWrite(IDEMPOTENCY_CACHE_TTL_MINUTES, TimeUnit.MINUTES)
+			.build();
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	@Autowired
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${orders.idempotency.retention-hours:24}")
+	private long retentionHours = 24;
+
+	/**
+	 * Creates an order from the user's cart. With an idempotency key, a key the user has
+	 * already submitted returns the order it produced without creating a new one.
+	 *
+	 * @throws ConcurrencyFailureException if every attempt lost to a concurrent cart update
+	 */
+	public OrderSubmission submit(User user, String idempotencyKey) {
+		if(idempotencyKey == null) {
+			return new OrderSubmission(create(user, null), false);
+		}
+		String scopedKey = user.getId() + ":" + idempotencyKey;
+		UserOrder previous = findSubmitted(scopedKey);
+		if(previous != null) {
+			return new OrderSubmission(previous, true);
+		}
+		UserOrder order;
+		try {
+			order = create(user, scopedKey);
+		} catch (DataIntegrityViolationException e) {
+			// a concurrent submission with the same key committed first
+			previous = findSubmitted(scopedKey);
+			if(previous == null) {
+				throw e;
+			}
+			return new OrderSubmission(previous, true);
+		}
+		submittedOrderIds.put(scopedKey, order.getId());
+		return new OrderSubmission(order, false);
+	}
+
+	@Scheduled(fixedDelayString = "${orders.idempotency.purge-interval-millis:3600000}")
+	public void purgeExpiredIdempotencyRecords() {
+		int purged = idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(retentionHours, ChronoUnit.HOURS));
+		if(purged > 0) {
+			logger.info("Purged {} idempotency records older than {} hours", purged, retentionHours);
+		}
+	}
+
+	private UserOrder create(User user, String scopedKey) {
+		Long cartId = user.getCart().getId();
+		for(int attempt = 1; ; attempt++) {
+			try {
+				return createOnce(cartId, scopedKey);
+			} catch (ConcurrencyFailureException e) {
+				if(attempt >= CartService.MAX_ATTEMPTS) {
+					logger.error("Giving up on the order for cart {} after {} conflicting attempts", cartId, attempt);
+					throw e;
+				}
+				logger.debug("Concurrent update of cart {} during checkout, retrying (attempt {})", cartId, attempt);
+			}
+			CartService.backoff(attempt);
+		}
+	}
+
+	private UserOrder createOnce(Long cartId, String scopedKey) {
+		return transactionTemplate.execute(status -> {
+			Cart cart = cartRepository.findByIdForUpdate(cartId)
+					.orElseThrow(() -> new IllegalStateException("Cart " + cartId + " not found"));
+			// loads the lines with their items up front rather than one item per line
+			cartRepository.findLinesWithItems(cartId);
+			UserOrder order = orderRepository.save(UserOrder.createFromCart(cart));
+			if(scopedKey != null) {
+				idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(scopedKey, order.getId()));
+			}
+			cartRepository.deleteLines(cartId);
+			cartRepository.resetTotal(cartId);
+			return order;
+		});
+	}
+
+	private UserOrder findSubmitted(String scopedKey) {
+		Long orderId = submittedOrderIds.getIfPresent(scopedKey);
+		if(orderId == null) {
+			orderId = idempotencyRecordRepository.findById(scopedKey).map(IdempotencyRecord::getOrderId).orElse(null);
+			if(orderId == null) {
+				return null;
+			}
+			submittedOrderIds.put(scopedKey, orderId);
+		}
+		List<UserOrder> orders = orderRepository.findWithLinesByIdIn(Collections.singletonList(orderId));
+		return orders.isEmpty() ? null : orders.get(0);
+	}
+}
@@ -0,0 +1,27 @@
+package com.example.demo.services;
+
+import com.example.demo.model.persistence.UserOrder;
+
+/**
+ * The order a submission resulted in, and whether it was replayed from an earlier
+ * submission with the same idempotency key rather than newly created.
+ */
+public class OrderSubmission {
+
+	private final UserOrder order;
+
+	private final boolean replayed;
+
+	public OrderSubmission(UserOrder order, boolean replayed) {
+		this.order = order;
+		this.replayed = replayed;
+	}
+
+	public UserOrder getOrder() {
+		return order;
+	}
+
+	public boolean isReplayed() {
+		return replayed;
+	}
+}
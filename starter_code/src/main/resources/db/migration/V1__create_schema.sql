@@ -0,0 +1,84 @@
+create table cart (
+    id bigint generated by default as identity,
+    total decimal(19,2),
+    version bigint,
+    primary key (id)
+);
+
+create table item (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    price decimal(19,2) not null,
+    description varchar(255) not null,
+    primary key (id)
+);
+
+create table user (
+    id bigint generated by default as identity,
+    username varchar(255) not null,
+    password varchar(255) not null,
+    cart_id bigint,
+    primary key (id)
+);
+
+create table cart_line (
+    id bigint generated by default as identity,
+    cart_id bigint not null,
+    item_id bigint not null,
+    quantity integer not null,
+    unit_price decimal(19,2) not null,
+    primary key (id)
+);
+
+create table user_order (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    total decimal(19,2),
+    primary key (id)
+);
+
+create table order_line (
+    id bigint generated by default as identity,
+    order_id bigint not null,
+    item_id bigint not null,
+    item_name varchar(255) not null,
+    quantity integer not null,
+    unit_price decimal(19,2) not null,
+    primary key (id)
+);
+
+create table idempotency_record (
+    idempotency_key varchar(300) not null,
+    order_id bigint not null,
+    created_at timestamp not null,
+    primary key (idempotency_key)
+);
+
+-- Indexes for the lookup paths. They are created before the foreign keys below so that
+-- H2 reuses the single-column ones for the keys instead of generating duplicates.
+
+-- UserRepository.findByUsername
+create unique index uk_user_username on user (username);
+
+-- CartRepository.findByUser; a user owns at most one cart
+create unique index uk_user_cart_id on user (cart_id);
+
+-- ItemRepository.findByName
+create index idx_item_name on item (name);
+
+-- cart lines are loaded, locked and cleared by cart, and keyed by item within a cart
+create unique index uk_cart_line_cart_item on cart_line (cart_id, item_id);
+
+-- OrderRepository.findByUser and the keyset pages
+create index idx_user_order_user_id on user_order (user_id);
+
+create index idx_order_line_order_id on order_line (order_id);
+
+-- OrderService.purgeExpiredIdempotencyRecords
+create index idx_idempotency_record_created_at on idempotency_record (created_at);
+
+alter table user add constraint fk_user_cart foreign key (cart_id) references cart (id);
+alter table cart_line add constraint fk_cart_line_cart foreign key (cart_id) references cart (id);
+alter table cart_line add constraint fk_cart_line_item foreign key (item_id) references item (id);
+alter table user_order add constraint fk_user_order_user foreign key (user_id) references user (id);
+alter table order_line add constraint fk_order_line_order foreign key (order_id) references user_order (id);
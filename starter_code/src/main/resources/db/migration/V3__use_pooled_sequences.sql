@@ -0,0 +1,21 @@
+-- Ids now come from sequences instead of IDENTITY columns, so Hibernate can batch inserts.
+-- Each value reserves a block of 50 ids starting at that value (the pooled-lo optimizer),
+-- so every sequence restarts just above the ids already in use.
+
+create sequence cart_seq start with 1 increment by 50;
+alter sequence cart_seq restart with (select coalesce(max(id), 0) + 1 from cart);
+
+create sequence cart_line_seq start with 1 increment by 50;
+alter sequence cart_line_seq restart with (select coalesce(max(id), 0) + 1 from cart_line);
+
+create sequence item_seq start with 1 increment by 50;
+alter sequence item_seq restart with (select coalesce(max(id), 0) + 1 from item);
+
+create sequence user_seq start with 1 increment by 50;
+alter sequence user_seq restart with (select coalesce(max(id), 0) + 1 from user);
+
+create sequence user_order_seq start with 1 increment by 50;
+alter sequence user_order_seq restart with (select coalesce(max(id), 0) + 1 from user_order);
+
+create sequence order_line_seq start with 1 increment by 50;
+alter sequence order_line_seq restart with (select coalesce(max(id), 0) + 1 from order_line);
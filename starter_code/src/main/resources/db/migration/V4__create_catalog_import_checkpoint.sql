@@ -0,0 +1,13 @@
+-- Progress of each catalog import, committed together with the items of every chunk,
+-- so an interrupted import resumes after the last committed row.
+
+create table catalog_import_checkpoint (
+    import_id varchar(100) not null,
+    rows_committed bigint not null,
+    inserted bigint not null,
+    updated bigint not null,
+    rejected bigint not null,
+    completed boolean not null,
+    updated_at timestamp not null,
+    primary key (import_id)
+);
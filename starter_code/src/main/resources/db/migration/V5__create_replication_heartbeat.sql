@@ -0,0 +1,10 @@
+-- A single row whose time the application rewrites on the primary every heartbeat
+-- interval. How old the copy on a read replica is tells how far that replica is behind.
+
+create table replication_heartbeat (
+    id int not null,
+    beat_millis bigint not null,
+    primary key (id)
+);
+
+insert into replication_heartbeat (id, beat_millis) values (1, 0);
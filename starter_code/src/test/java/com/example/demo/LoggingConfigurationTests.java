@@ -0,0 +1,34 @@
+package com.example.demo;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.RollingRandomAccessFileAppender;
+import org.apache.logging.log4j.core.async.AsyncLoggerContext;
+import org.apache.logging.log4j.core.layout.JsonLayout;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.nio.file.Paths;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class)
+public class LoggingConfigurationTests {
+
+    @Test
+    public void loggers_are_asynchronous() {
+        Assert.assertTrue(LogManager.getContext(false) instanceof AsyncLoggerContext);
+    }
+
+    @Test
+    public void file_appender_writes_json_to_the_splunk_file() {
+        LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        RollingRandomAccessFileAppender file = context.getConfiguration().getAppender("File");
+
+        Assert.assertNotNull(file);
+        Assert.assertTrue(file.getLayout() instanceof JsonLayout);
+        Assert.assertEquals(Paths.get("logs", "app_log.log"), Paths.get(file.getFileName()));
+    }
+}
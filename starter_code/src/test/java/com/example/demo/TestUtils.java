@@ -6,7 +6,7 @@ public class TestUtils {
     public static void injectObjects(Object target, String fieldName, Object toInject) throws NoSuchFieldException, IllegalAccessException {
       boolean wasPrivate = false;
       Field f = target.getClass().getDeclaredField(fieldName);
-      if (!f.isAccessible()) {
+      if (!f.canAccess(target)) {
           f.setAccessible(true);
           wasPrivate = true;
       }
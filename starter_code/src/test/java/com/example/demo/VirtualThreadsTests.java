@@ -0,0 +1,50 @@
+package com.example.demo;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Needs a Java 21 JVM, so the default test run skips it and the java21 profile runs it.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+public class VirtualThreadsTests {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Test
+    public void tomcat_hands_requests_to_virtual_threads() {
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+        Object executor = webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+
+        Assert.assertEquals("VirtualThreadExecutor", executor.getClass().getSimpleName());
+    }
+
+    @Test
+    public void async_work_runs_on_virtual_threads() throws Exception {
+        Boolean virtual = applicationTaskExecutor.submit(VirtualThreadsTests::isVirtual).get(10, TimeUnit.SECONDS);
+
+        Assert.assertTrue(virtual);
+    }
+
+    // Thread.isVirtual() is not in the Java 17 API the project compiles against
+    private static boolean isVirtual() throws Exception {
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+    }
+}
@@ -7,18 +7,31 @@ import com.example.demo.model.persistence.User;
 import com.example.demo.model.persistence.repositories.CartRepository;
 import com.example.demo.model.persistence.repositories.ItemRepository;
 import com.example.demo.model.persistence.repositories.UserRepository;
+import com.example.demo.model.requests.CartItemChange;
+import com.example.demo.model.requests.ModifyCartBatchRequest;
 import com.example.demo.model.requests.ModifyCartRequest;
+import com.example.demo.model.responses.CartLineResponse;
+import com.example.demo.model.responses.CartResponse;
+import com.example.demo.services.CartService;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class CartControllerTests {
@@ -32,10 +45,14 @@ public class CartControllerTests {
 
     @Before
     public void setup() throws NoSuchFieldException, IllegalAccessException {
+        CartService cartService = new CartService();
+        TestUtils.injectObjects(cartService, "cartRepository", cartRepository);
+        TestUtils.injectObjects(cartService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
         cartController = new CartController();
         TestUtils.injectObjects(cartController, "userRepository" , userRepository);
-        TestUtils.injectObjects(cartController, "cartRepository", cartRepository);
         TestUtils.injectObjects(cartController, "itemRepository", itemRepository);
+        TestUtils.injectObjects(cartController, "cartService", cartService);
     }
 
     @Test
@@ -50,15 +67,19 @@ public class CartControllerTests {
         modifyCartRequest.setItemId(item.getId());
         modifyCartRequest.setUsername(user.getUsername());
 
-        final ResponseEntity<Cart> response = cartController.addTocart(modifyCartRequest);
+        final ResponseEntity<CartResponse> response = cartController.addTocart(modifyCartRequest);
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(200, response.getStatusCodeValue());
+        Assert.assertEquals(200, response.getStatusCode().value());
 
-        Cart c = response.getBody();
+        CartResponse c = response.getBody();
 
         Assert.assertNotNull(c);
-        Assert.assertEquals(Long.valueOf(1), c.getItems().get(0).getId());
+        Assert.assertEquals(1, c.getLines().size());
+        CartLineResponse line = c.getLines().get(0);
+        Assert.assertEquals(item.getId(), line.getItemId());
+        Assert.assertEquals(2, line.getQuantity());
+        Assert.assertEquals(item.getPrice().multiply(new BigDecimal(2)), line.getSubtotal());
         Assert.assertEquals(item.getPrice().multiply(new BigDecimal(2)), c.getTotal());
     }
 
@@ -74,12 +95,12 @@ public class CartControllerTests {
         modifyCartRequest.setItemId(item.getId());
         modifyCartRequest.setUsername(user.getUsername());
 
-        final ResponseEntity<Cart> response = cartController.addTocart(modifyCartRequest);
+        final ResponseEntity<CartResponse> response = cartController.addTocart(modifyCartRequest);
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(404, response.getStatusCodeValue());
+        Assert.assertEquals(404, response.getStatusCode().value());
 
-        Cart c = response.getBody();
+        CartResponse c = response.getBody();
         Assert.assertNull(c);
     }
 
@@ -95,12 +116,12 @@ public class CartControllerTests {
         modifyCartRequest.setItemId(item.getId());
         modifyCartRequest.setUsername(user.getUsername());
 
-        final ResponseEntity<Cart> response = cartController.addTocart(modifyCartRequest);
+        final ResponseEntity<CartResponse> response = cartController.addTocart(modifyCartRequest);
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(404, response.getStatusCodeValue());
+        Assert.assertEquals(404, response.getStatusCode().value());
 
-        Cart c = response.getBody();
+        CartResponse c = response.getBody();
         Assert.assertNull(c);
     }
 
@@ -108,10 +129,8 @@ public class CartControllerTests {
     public void remove_from_cart_ser_not_found_case() throws Exception {
         User user = createTestUser();
         Item item = createTestItem();
-        Cart cart = new Cart();
-        cart.setItems(new ArrayList<>(Arrays.asList(item)));
-        cart.setUser(user);
-        user.setCart(cart);
+        Cart cart = user.getCart();
+        cart.addItem(item);
         when(userRepository.findByUsername(user.getUsername())).thenReturn(null);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
@@ -120,12 +139,12 @@ public class CartControllerTests {
         modifyCartRequest.setItemId(item.getId());
         modifyCartRequest.setUsername(user.getUsername());
 
-        final ResponseEntity<Cart> response = cartController.removeFromcart(modifyCartRequest);
+        final ResponseEntity<CartResponse> response = cartController.removeFromcart(modifyCartRequest);
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(404, response.getStatusCodeValue());
+        Assert.assertEquals(404, response.getStatusCode().value());
 
-        Cart c = response.getBody();
+        CartResponse c = response.getBody();
         Assert.assertNull(c);
     }
 
@@ -133,10 +152,8 @@ public class CartControllerTests {
     public void remove_from_cart_item_not_found_case() throws Exception {
         User user = createTestUser();
         Item item = createTestItem();
-        Cart cart = new Cart();
-        cart.setItems(new ArrayList<>(Arrays.asList(item)));
-        cart.setUser(user);
-        user.setCart(cart);
+        Cart cart = user.getCart();
+        cart.addItem(item);
         when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.empty());
 
@@ -145,12 +162,12 @@ public class CartControllerTests {
         modifyCartRequest.setItemId(item.getId());
         modifyCartRequest.setUsername(user.getUsername());
 
-        final ResponseEntity<Cart> response = cartController.removeFromcart(modifyCartRequest);
+        final ResponseEntity<CartResponse> response = cartController.removeFromcart(modifyCartRequest);
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(404, response.getStatusCodeValue());
+        Assert.assertEquals(404, response.getStatusCode().value());
 
-        Cart c = response.getBody();
+        CartResponse c = response.getBody();
         Assert.assertNull(c);
     }
 
@@ -158,10 +175,8 @@ public class CartControllerTests {
     public void remove_from_cart_happy_path() throws Exception {
         User user = createTestUser();
         Item item = createTestItem();
-        Cart cart = new Cart();
-        cart.setItems(new ArrayList<>(Arrays.asList(item)));
-        cart.setUser(user);
-        user.setCart(cart);
+        Cart cart = user.getCart();
+        cart.addItem(item);
         when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
@@ -170,21 +185,147 @@ public class CartControllerTests {
         modifyCartRequest.setItemId(item.getId());
         modifyCartRequest.setUsername(user.getUsername());
 
-        final ResponseEntity<Cart> response = cartController.removeFromcart(modifyCartRequest);
+        final ResponseEntity<CartResponse> response = cartController.removeFromcart(modifyCartRequest);
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(200, response.getStatusCodeValue());
+        Assert.assertEquals(200, response.getStatusCode().value());
 
-        Cart c = response.getBody();
+        CartResponse c = response.getBody();
 
         Assert.assertNotNull(c);
-        Assert.assertTrue(c.getItems().isEmpty());
+        Assert.assertTrue(c.getLines().isEmpty());
+        Assert.assertEquals(0, BigDecimal.ZERO.compareTo(c.getTotal()));
+    }
+
+    @Test
+    public void add_to_cart_retries_on_concurrent_update() throws Exception {
+        User user = createTestUser();
+        Item item = createTestItem();
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(cartRepository.saveAndFlush(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Cart.class, 1L))
+                .thenReturn(user.getCart());
+
+        ModifyCartRequest modifyCartRequest = new ModifyCartRequest();
+        modifyCartRequest.setQuantity(1);
+        modifyCartRequest.setItemId(item.getId());
+        modifyCartRequest.setUsername(user.getUsername());
+
+        final ResponseEntity<CartResponse> response = cartController.addTocart(modifyCartRequest);
+
+        verify(cartRepository, times(2)).saveAndFlush(any());
+        Assert.assertNotNull(response);
+        Assert.assertEquals(200, response.getStatusCode().value());
+    }
+
+    @Test
+    public void add_to_cart_conflict_case() throws Exception {
+        User user = createTestUser();
+        Item item = createTestItem();
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(cartRepository.saveAndFlush(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Cart.class, 1L));
+
+        ModifyCartRequest modifyCartRequest = new ModifyCartRequest();
+        modifyCartRequest.setQuantity(1);
+        modifyCartRequest.setItemId(item.getId());
+        modifyCartRequest.setUsername(user.getUsername());
+
+        final ResponseEntity<CartResponse> response = cartController.addTocart(modifyCartRequest);
+
+        Assert.assertNotNull(response);
+        Assert.assertEquals(409, response.getStatusCode().value());
+        Assert.assertNull(response.getBody());
+    }
+
+    @Test
+    public void modify_cart_applies_all_changes_with_one_lookup_and_one_save() throws Exception {
+        User user = createTestUser();
+        Item item = createTestItem();
+        Item other = createTestItem();
+        other.setId(2L);
+        other.setPrice(new BigDecimal(50));
+        Item removed = createTestItem();
+        removed.setId(3L);
+        user.getCart().addItem(item, 3);
+        user.getCart().addItem(removed, 2);
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+        when(itemRepository.findAllById(new HashSet<>(Arrays.asList(1L, 2L)))).thenReturn(Arrays.asList(item, other));
+
+        ModifyCartBatchRequest request = new ModifyCartBatchRequest();
+        request.setUsername(user.getUsername());
+        request.setChanges(Arrays.asList(new CartItemChange(1L, -1), new CartItemChange(2L, 4)));
+        request.setRemoveItemIds(Collections.singletonList(3L));
+
+        final ResponseEntity<CartResponse> response = cartController.modifyCart(request);
+
+        verify(itemRepository, never()).findById(any());
+        verify(cartRepository, times(1)).saveAndFlush(any());
+        Assert.assertEquals(200, response.getStatusCode().value());
+        CartResponse c = response.getBody();
+        Assert.assertEquals(2, c.getLines().size());
+        Assert.assertEquals(Long.valueOf(1L), c.getLines().get(0).getItemId());
+        Assert.assertEquals(2, c.getLines().get(0).getQuantity());
+        Assert.assertEquals(Long.valueOf(2L), c.getLines().get(1).getItemId());
+        Assert.assertEquals(4, c.getLines().get(1).getQuantity());
+        Assert.assertEquals(0, new BigDecimal(600).compareTo(c.getTotal()));
+    }
+
+    @Test
+    public void modify_cart_unknown_item_changes_nothing() throws Exception {
+        User user = createTestUser();
+        Item item = createTestItem();
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+        when(itemRepository.findAllById(any())).thenReturn(Collections.singletonList(item));
+
+        ModifyCartBatchRequest request = new ModifyCartBatchRequest();
+        request.setUsername(user.getUsername());
+        request.setChanges(Arrays.asList(new CartItemChange(1L, 1), new CartItemChange(99L, 1)));
+
+        final ResponseEntity<CartResponse> response = cartController.modifyCart(request);
+
+        Assert.assertEquals(404, response.getStatusCode().value());
+        verify(cartRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void modify_cart_empty_or_oversized_batch_case() throws Exception {
+        ModifyCartBatchRequest empty = new ModifyCartBatchRequest();
+        empty.setUsername("testUser");
+        ModifyCartBatchRequest oversized = new ModifyCartBatchRequest();
+        oversized.setUsername("testUser");
+        oversized.setChanges(Collections.nCopies(CartController.MAX_BATCH_CHANGES + 1, new CartItemChange(1L, 1)));
+
+        Assert.assertEquals(400, cartController.modifyCart(empty).getStatusCode().value());
+        Assert.assertEquals(400, cartController.modifyCart(oversized).getStatusCode().value());
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    public void modify_cart_missing_item_id_case() throws Exception {
+        ModifyCartBatchRequest missingChangeId = new ModifyCartBatchRequest();
+        missingChangeId.setUsername("testUser");
+        missingChangeId.setChanges(Arrays.asList(new CartItemChange(1L, 1), new CartItemChange(null, 1)));
+        ModifyCartBatchRequest missingRemoveId = new ModifyCartBatchRequest();
+        missingRemoveId.setUsername("testUser");
+        missingRemoveId.setRemoveItemIds(Arrays.asList(1L, null));
+
+        Assert.assertEquals(400, cartController.modifyCart(missingChangeId).getStatusCode().value());
+        Assert.assertEquals(400, cartController.modifyCart(missingRemoveId).getStatusCode().value());
+        verify(userRepository, never()).findByUsername(any());
+        verify(itemRepository, never()).findAllById(any());
     }
 
     private User createTestUser() {
         User user = new User();
         user.setUsername("testUser");
-        user.setCart(new Cart());
+        Cart cart = new Cart();
+        cart.setId(1L);
+        cart.setUser(user);
+        user.setCart(cart);
+        when(cartRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cart));
         return user;
     }
 
@@ -0,0 +1,120 @@
+package com.example.demo.controllers;
+
+import com.example.demo.TestUtils;
+import com.example.demo.model.persistence.CatalogImportCheckpoint;
+import com.example.demo.model.responses.CatalogImportResult;
+import com.example.demo.services.CatalogImportService;
+import com.example.demo.services.ImportAlreadyRunningException;
+import com.example.demo.services.InvalidCatalogImportException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class CatalogImportControllerTests {
+    private CatalogImportController catalogImportController;
+
+    private CatalogImportService catalogImportService = mock(CatalogImportService.class);
+
+    private final Principal admin = new UsernamePasswordAuthenticationToken("admin", null, new ArrayList<>());
+
+    private final InputStream body = new ByteArrayInputStream(new byte[0]);
+
+    @Before
+    public void setup() throws NoSuchFieldException, IllegalAccessException {
+        catalogImportController = new CatalogImportController();
+        TestUtils.injectObjects(catalogImportController, "catalogImportService", catalogImportService);
+        TestUtils.injectObjects(catalogImportController, "admins", new String[] {"admin"});
+    }
+
+    @Test
+    public void import_happy_path() throws Exception {
+        CatalogImportResult result = new CatalogImportResult(new CatalogImportCheckpoint("catalog"), Collections.emptyList());
+        when(catalogImportService.importCatalog("catalog", CatalogImportService.Format.CSV, body)).thenReturn(result);
+
+        final ResponseEntity<CatalogImportResult> response = catalogImportController.importCatalog("catalog", "csv", body, admin);
+
+        Assert.assertEquals(200, response.getStatusCode().value());
+        Assert.assertSame(result, response.getBody());
+    }
+
+    @Test
+    public void import_is_forbidden_to_other_users() throws Exception {
+        Principal user = new UsernamePasswordAuthenticationToken("shopper", null, new ArrayList<>());
+
+        Assert.assertEquals(403, catalogImportController.importCatalog("catalog", "csv", body, user).getStatusCode().value());
+        Assert.assertEquals(403, catalogImportController.getImport("catalog", user).getStatusCode().value());
+        verifyNoInteractions(catalogImportService);
+    }
+
+    @Test
+    public void import_with_unknown_format_is_rejected() throws Exception {
+        Assert.assertEquals(400, catalogImportController.importCatalog("catalog", "xml", body, admin).getStatusCode().value());
+        verifyNoInteractions(catalogImportService);
+    }
+
+    @Test
+    public void invalid_import_is_rejected() throws Exception {
+        when(catalogImportService.importCatalog(eq("catalog"), any(), any()))
+                .thenThrow(new InvalidCatalogImportException("CSV header must name the name, price and description columns"));
+
+        Assert.assertEquals(400, catalogImportController.importCatalog("catalog", "csv", body, admin).getStatusCode().value());
+    }
+
+    @Test
+    public void import_already_running_conflicts() throws Exception {
+        when(catalogImportService.importCatalog(eq("catalog"), any(), any()))
+                .thenThrow(new ImportAlreadyRunningException("catalog"));
+
+        Assert.assertEquals(409, catalogImportController.importCatalog("catalog", "ndjson", body, admin).getStatusCode().value());
+    }
+
+    @Test
+    public void import_already_completed_conflicts_and_reports_skipped() throws Exception {
+        CatalogImportCheckpoint checkpoint = new CatalogImportCheckpoint("catalog");
+        CatalogImportResult result = new CatalogImportResult(checkpoint, Collections.emptyList(), true);
+        when(catalogImportService.importCatalog(eq("catalog"), any(), any())).thenReturn(result);
+
+        final ResponseEntity<CatalogImportResult> response = catalogImportController.importCatalog("catalog", "csv", body, admin);
+
+        Assert.assertEquals(409, response.getStatusCode().value());
+        Assert.assertTrue(response.getBody().isSkipped());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void other_import_failures_are_not_reported_as_conflicts() throws Exception {
+        when(catalogImportService.importCatalog(eq("catalog"), any(), any()))
+                .thenThrow(new IllegalStateException("Transaction silently rolled back"));
+
+        catalogImportController.importCatalog("catalog", "ndjson", body, admin);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void other_import_failures_are_not_reported_as_client_errors() throws Exception {
+        when(catalogImportService.importCatalog(eq("catalog"), any(), any()))
+                .thenThrow(new IllegalArgumentException("Parameter value did not match expected type"));
+
+        catalogImportController.importCatalog("catalog", "ndjson", body, admin);
+    }
+
+    @Test
+    public void get_unknown_import_not_found() {
+        when(catalogImportService.findImport("missing")).thenReturn(Optional.empty());
+
+        Assert.assertEquals(404, catalogImportController.getImport("missing", admin).getStatusCode().value());
+    }
+}
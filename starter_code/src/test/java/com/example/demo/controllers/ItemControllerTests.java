@@ -3,6 +3,9 @@ package com.example.demo.controllers;
 import com.example.demo.TestUtils;
 import com.example.demo.model.persistence.Item;
 import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.model.responses.ItemPage;
+import com.example.demo.model.responses.ItemResponse;
+import com.example.demo.search.ItemSearchIndex;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -11,6 +14,8 @@ import org.springframework.http.ResponseEntity;
 import java.math.BigDecimal;
 import java.util.*;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -19,10 +24,13 @@ public class ItemControllerTests {
 
     private ItemRepository itemRepository = mock(ItemRepository.class);
 
+    private ItemSearchIndex itemSearchIndex = new ItemSearchIndex();
+
     @Before
     public void setup() throws NoSuchFieldException, IllegalAccessException {
         itemController = new ItemController();
         TestUtils.injectObjects(itemController, "itemRepository", itemRepository);
+        TestUtils.injectObjects(itemController, "itemSearchIndex", itemSearchIndex);
     }
 
     @Test
@@ -30,14 +38,17 @@ public class ItemControllerTests {
       Item item = createTestItem(1L);
       when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
-      final ResponseEntity<Item> response = itemController.getItemById(item.getId());
+      final ResponseEntity<ItemResponse> response = itemController.getItemById(item.getId());
 
       Assert.assertNotNull(response);
-      Assert.assertEquals(200, response.getStatusCodeValue());
+      Assert.assertEquals(200, response.getStatusCode().value());
 
-      Item it = response.getBody();
+      ItemResponse it = response.getBody();
       Assert.assertNotNull(it);
-      Assert.assertEquals(item, it);
+      Assert.assertEquals(item.getId(), it.getId());
+      Assert.assertEquals(item.getName(), it.getName());
+      Assert.assertEquals(item.getPrice(), it.getPrice());
+      Assert.assertEquals(item.getDescription(), it.getDescription());
     }
 
     @Test
@@ -45,12 +56,12 @@ public class ItemControllerTests {
         Item item = createTestItem(1L);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.empty());
 
-        final ResponseEntity<Item> response = itemController.getItemById(item.getId());
+        final ResponseEntity<ItemResponse> response = itemController.getItemById(item.getId());
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(404, response.getStatusCodeValue());
+        Assert.assertEquals(404, response.getStatusCode().value());
 
-        Item it = response.getBody();
+        ItemResponse it = response.getBody();
         Assert.assertNull(it);
     }
 
@@ -59,15 +70,15 @@ public class ItemControllerTests {
         Item item = createTestItem(1L);
         when(itemRepository.findByName(item.getName())).thenReturn(Arrays.asList(item));
 
-        final ResponseEntity<List<Item>> response = itemController.getItemsByName(item.getName());
+        final ResponseEntity<List<ItemResponse>> response = itemController.getItemsByName(item.getName());
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(200, response.getStatusCodeValue());
+        Assert.assertEquals(200, response.getStatusCode().value());
 
-        List<Item> itemList = response.getBody();
+        List<ItemResponse> itemList = response.getBody();
         Assert.assertNotNull(itemList);
         Assert.assertFalse(itemList.isEmpty());
-        Assert.assertEquals(item, itemList.get(0));
+        Assert.assertEquals(item.getId(), itemList.get(0).getId());
     }
 
     @Test
@@ -75,12 +86,12 @@ public class ItemControllerTests {
         Item item = createTestItem(1L);
         when(itemRepository.findByName(item.getName())).thenReturn(new ArrayList<>());
 
-        final ResponseEntity<List<Item>> response = itemController.getItemsByName(item.getName());
+        final ResponseEntity<List<ItemResponse>> response = itemController.getItemsByName(item.getName());
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(404, response.getStatusCodeValue());
+        Assert.assertEquals(404, response.getStatusCode().value());
 
-        List<Item> itemList = response.getBody();
+        List<ItemResponse> itemList = response.getBody();
         Assert.assertNull(itemList);
     }
 
@@ -90,17 +101,123 @@ public class ItemControllerTests {
         Item item2 = createTestItem(2L);
         when(itemRepository.findAll()).thenReturn(Arrays.asList(item, item2));
 
-        final ResponseEntity<List<Item>> response = itemController.getItems();
+        final ResponseEntity<List<ItemResponse>> response = itemController.getItems();
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(200, response.getStatusCodeValue());
+        Assert.assertEquals(200, response.getStatusCode().value());
 
-        List<Item> itemList = response.getBody();
+        List<ItemResponse> itemList = response.getBody();
         Assert.assertNotNull(itemList);
         Assert.assertFalse(itemList.isEmpty());
         Assert.assertEquals(2, itemList.size());
     }
 
+    @Test
+    public void get_item_page_with_more_results() {
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(new ArrayList<>(Arrays.asList(createTestItem(1L), createTestItem(2L), createTestItem(3L))));
+
+        final ResponseEntity<ItemPage> response = itemController.getItemPage(null, 2);
+
+        Assert.assertNotNull(response);
+        Assert.assertEquals(200, response.getStatusCode().value());
+
+        ItemPage page = response.getBody();
+        Assert.assertNotNull(page);
+        Assert.assertEquals(2, page.getItems().size());
+        Assert.assertEquals(Cursors.encode(2L), page.getNextCursor());
+    }
+
+    @Test
+    public void get_item_page_last_page() {
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any()))
+                .thenReturn(new ArrayList<>(Arrays.asList(createTestItem(3L))));
+
+        final ResponseEntity<ItemPage> response = itemController.getItemPage(Cursors.encode(2L), 2);
+
+        Assert.assertNotNull(response);
+        Assert.assertEquals(200, response.getStatusCode().value());
+
+        ItemPage page = response.getBody();
+        Assert.assertNotNull(page);
+        Assert.assertEquals(1, page.getItems().size());
+        Assert.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void get_item_page_invalid_cursor_case() {
+        final ResponseEntity<ItemPage> response = itemController.getItemPage("not a cursor", 2);
+
+        Assert.assertNotNull(response);
+        Assert.assertEquals(400, response.getStatusCode().value());
+    }
+
+    @Test
+    public void search_items_prefix_and_fuzzy_match() {
+        itemSearchIndex.index(createTestItem(1L, "Round Widget", "A widget that is round"));
+        itemSearchIndex.index(createTestItem(2L, "Square Widget", "A widget that is square"));
+        itemSearchIndex.index(createTestItem(3L, "Round Table", "Seats four"));
+
+        List<ItemResponse> prefix = itemController.searchItems("wid", 20).getBody();
+        Assert.assertNotNull(prefix);
+        Assert.assertEquals(2, prefix.size());
+
+        List<ItemResponse> fuzzy = itemController.searchItems("sqaure widgit", 20).getBody();
+        Assert.assertNotNull(fuzzy);
+        Assert.assertEquals(1, fuzzy.size());
+        Assert.assertEquals(Long.valueOf(2L), fuzzy.get(0).getId());
+    }
+
+    @Test
+    public void search_items_ranks_name_matches_first() {
+        itemSearchIndex.index(createTestItem(1L, "Widget Stand", "Holds a round widget"));
+        itemSearchIndex.index(createTestItem(2L, "Round Widget", "A widget that is round"));
+
+        List<ItemResponse> items = itemController.searchItems("round", 20).getBody();
+
+        Assert.assertNotNull(items);
+        Assert.assertEquals(2, items.size());
+        Assert.assertEquals(Long.valueOf(2L), items.get(0).getId());
+    }
+
+    @Test
+    public void search_items_returns_the_best_matches_up_to_the_limit() {
+        itemSearchIndex.index(createTestItem(1L, "Widget Stand", "Holds a round widget"));
+        itemSearchIndex.index(createTestItem(2L, "Round Widget", "A widget that is round"));
+        itemSearchIndex.index(createTestItem(3L, "Square Widget", "A widget that is square"));
+        itemSearchIndex.index(createTestItem(4L, "Round Table", "Seats four"));
+        itemSearchIndex.index(createTestItem(5L, "Round Rug", "Fits under a round table"));
+
+        List<ItemResponse> items = itemController.searchItems("round", 2).getBody();
+
+        Assert.assertNotNull(items);
+        Assert.assertEquals(2, items.size());
+        Assert.assertEquals(Long.valueOf(2L), items.get(0).getId());
+        Assert.assertEquals(Long.valueOf(4L), items.get(1).getId());
+    }
+
+    @Test
+    public void search_items_reflects_updates_and_removals() {
+        Item item = createTestItem(1L, "Round Widget", "A widget that is round");
+        itemSearchIndex.index(item);
+        item.setName("Oval Widget");
+        itemSearchIndex.index(item);
+
+        Assert.assertEquals(1, itemController.searchItems("oval", 20).getBody().size());
+        Assert.assertTrue(itemController.searchItems("round widget", 20).getBody().size() == 1);
+
+        itemSearchIndex.remove(1L);
+
+        Assert.assertTrue(itemController.searchItems("widget", 20).getBody().isEmpty());
+    }
+
+    private Item createTestItem(Long id, String name, String description) {
+        Item item = createTestItem(id);
+        item.setName(name);
+        item.setDescription(description);
+        return item;
+    }
+
     private Item createTestItem(Long id) {
         Item item = new Item();
         item.setId(id);
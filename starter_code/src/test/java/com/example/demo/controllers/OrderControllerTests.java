@@ -2,20 +2,36 @@ package com.example.demo.controllers;
 
 import com.example.demo.TestUtils;
 import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.IdempotencyRecord;
 import com.example.demo.model.persistence.Item;
 import com.example.demo.model.persistence.User;
 import com.example.demo.model.persistence.UserOrder;
+import com.example.demo.model.persistence.repositories.CartRepository;
+import com.example.demo.model.persistence.repositories.IdempotencyRecordRepository;
 import com.example.demo.model.persistence.repositories.OrderRepository;
 import com.example.demo.model.persistence.repositories.UserRepository;
+import com.example.demo.model.responses.OrderLineResponse;
+import com.example.demo.model.responses.OrderPage;
+import com.example.demo.model.responses.OrderResponse;
+import com.example.demo.services.OrderExportService;
+import com.example.demo.services.OrderService;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 
@@ -26,11 +42,31 @@ public class OrderControllerTests {
 
     private OrderRepository orderRepository = mock(OrderRepository.class);
 
+    private OrderExportService orderExportService = mock(OrderExportService.class);
+
+    private CartRepository cartRepository = mock(CartRepository.class);
+
+    private IdempotencyRecordRepository idempotencyRecordRepository = mock(IdempotencyRecordRepository.class);
+
     @Before
     public void setup() throws NoSuchFieldException, IllegalAccessException {
+        OrderService orderService = new OrderService();
+        TestUtils.injectObjects(orderService, "orderRepository", orderRepository);
+        TestUtils.injectObjects(orderService, "cartRepository", cartRepository);
+        TestUtils.injectObjects(orderService, "idempotencyRecordRepository", idempotencyRecordRepository);
+        TestUtils.injectObjects(orderService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        when(orderRepository.save(any())).thenAnswer(invocation -> {
+            UserOrder order = invocation.getArgument(0);
+            order.setId(1L);
+            return order;
+        });
+
         orderController = new OrderController();
         TestUtils.injectObjects(orderController, "userRepository" , userRepository);
         TestUtils.injectObjects(orderController, "orderRepository", orderRepository);
+        TestUtils.injectObjects(orderController, "orderExportService", orderExportService);
+        TestUtils.injectObjects(orderController, "orderService", orderService);
     }
 
     @Test
@@ -40,15 +76,16 @@ public class OrderControllerTests {
         when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
         when(orderRepository.findByUser(user)).thenReturn(Arrays.asList(order));
 
-        final ResponseEntity<List<UserOrder>> response = orderController.getOrdersForUser(user.getUsername());
+        final ResponseEntity<List<OrderResponse>> response = orderController.getOrdersForUser(user.getUsername());
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(200, response.getStatusCodeValue());
+        Assert.assertEquals(200, response.getStatusCode().value());
 
-        List<UserOrder> orders = response.getBody();
+        List<OrderResponse> orders = response.getBody();
         Assert.assertNotNull(orders);
         Assert.assertEquals(1, orders.size());
-        Assert.assertEquals(order, orders.get(0));
+        Assert.assertEquals(order.getId(), orders.get(0).getId());
+        Assert.assertEquals(order.getTotal(), orders.get(0).getTotal());
     }
 
     @Test
@@ -57,40 +94,80 @@ public class OrderControllerTests {
         UserOrder order = createTestOrder(user);
         when(userRepository.findByUsername(user.getUsername())).thenReturn(null);
 
-        final ResponseEntity<List<UserOrder>> response = orderController.getOrdersForUser(user.getUsername());
+        final ResponseEntity<List<OrderResponse>> response = orderController.getOrdersForUser(user.getUsername());
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(404, response.getStatusCodeValue());
+        Assert.assertEquals(404, response.getStatusCode().value());
 
-        List<UserOrder> orders = response.getBody();
+        List<OrderResponse> orders = response.getBody();
         Assert.assertNull(orders);
     }
 
     @Test
     public void submit_happy_path() {
-        User user = createTestUser();
-        Cart cart = createTestCart(user);
-        user.setCart(cart);
+        User user = createTestUserWithCart();
         UserOrder order = createTestOrder(user);
-        Item item = new Item();
-        item.setId(1L);
-        item.setName("testItem");
-        List<Item> items = new ArrayList<>(Arrays.asList(item));
-        cart.setItems(items);
-        order.setItems(items);
         when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
 
-        final ResponseEntity<UserOrder> response = orderController.submit(user.getUsername());
+        final ResponseEntity<OrderResponse> response = orderController.submit(user.getUsername(), null);
         verify(orderRepository, times(1)).save(any());
+        verify(cartRepository).deleteLines(user.getCart().getId());
+        verify(cartRepository).resetTotal(user.getCart().getId());
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(200, response.getStatusCodeValue());
+        Assert.assertEquals(200, response.getStatusCode().value());
 
-        UserOrder ord = response.getBody();
+        OrderResponse ord = response.getBody();
         Assert.assertNotNull(ord);
-        Assert.assertEquals(order.getItems(), ord.getItems());
-        Assert.assertEquals(order.getUser(), ord.getUser());
+        Assert.assertEquals(Long.valueOf(1L), ord.getId());
         Assert.assertEquals(order.getTotal(), ord.getTotal());
+        Assert.assertEquals(1, ord.getLines().size());
+        OrderLineResponse line = ord.getLines().get(0);
+        Assert.assertEquals(Long.valueOf(1L), line.getItemId());
+        Assert.assertEquals("testItem", line.getItemName());
+        Assert.assertEquals(1, line.getQuantity());
+        Assert.assertEquals(new BigDecimal(200), line.getUnitPrice());
+    }
+
+    @Test
+    public void submit_captures_cart_price_not_current_price() {
+        User user = createTestUserWithCart();
+        user.getCart().getLine(1L).getItem().setPrice(new BigDecimal(300));
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+
+        final ResponseEntity<OrderResponse> response = orderController.submit(user.getUsername(), null);
+
+        Assert.assertEquals(new BigDecimal(200), response.getBody().getLines().get(0).getUnitPrice());
+        Assert.assertEquals(new BigDecimal(200), response.getBody().getTotal());
+    }
+
+    @Test
+    public void submit_retries_after_losing_the_cart_lock() {
+        User user = createTestUserWithCart();
+        Cart cart = user.getCart();
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+        when(cartRepository.findByIdForUpdate(cart.getId()))
+                .thenThrow(new PessimisticLockingFailureException("lock timeout"))
+                .thenReturn(Optional.of(cart));
+
+        final ResponseEntity<OrderResponse> response = orderController.submit(user.getUsername(), null);
+
+        Assert.assertEquals(200, response.getStatusCode().value());
+        verify(cartRepository, times(2)).findByIdForUpdate(cart.getId());
+        verify(orderRepository, times(1)).save(any());
+    }
+
+    @Test
+    public void submit_conflict_case() {
+        User user = createTestUserWithCart();
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+        when(cartRepository.findByIdForUpdate(user.getCart().getId()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Cart.class, user.getCart().getId()));
+
+        final ResponseEntity<OrderResponse> response = orderController.submit(user.getUsername(), null);
+
+        Assert.assertEquals(409, response.getStatusCode().value());
+        verify(orderRepository, never()).save(any());
     }
 
     @Test
@@ -98,15 +175,163 @@ public class OrderControllerTests {
         User user = createTestUser();
         when(userRepository.findByUsername(user.getUsername())).thenReturn(null);
 
-        final ResponseEntity<UserOrder> response = orderController.submit(user.getUsername());
+        final ResponseEntity<OrderResponse> response = orderController.submit(user.getUsername(), null);
 
         verify(orderRepository, times(0)).save(any());
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(404, response.getStatusCodeValue());
+        Assert.assertEquals(404, response.getStatusCode().value());
+
+        Assert.assertNull(response.getBody());
+    }
+
+    @Test
+    public void submit_repeated_idempotency_key_replays_order() {
+        User user = createTestUserWithCart();
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+
+        final ResponseEntity<OrderResponse> first = orderController.submit(user.getUsername(), "key-1");
+        when(orderRepository.findWithLinesByIdIn(Arrays.asList(1L))).thenAnswer(invocation -> {
+            UserOrder order = new UserOrder();
+            order.setId(first.getBody().getId());
+            return Arrays.asList(order);
+        });
+        final ResponseEntity<OrderResponse> second = orderController.submit(user.getUsername(), "key-1");
+
+        verify(orderRepository, times(1)).save(any());
+        verify(idempotencyRecordRepository, times(1)).saveAndFlush(any());
+        Assert.assertEquals(200, first.getStatusCode().value());
+        Assert.assertNull(first.getHeaders().getFirst(OrderController.IDEMPOTENT_REPLAYED_HEADER));
+        Assert.assertEquals(200, second.getStatusCode().value());
+        Assert.assertEquals("true", second.getHeaders().getFirst(OrderController.IDEMPOTENT_REPLAYED_HEADER));
+        Assert.assertEquals(first.getBody().getId(), second.getBody().getId());
+    }
 
-        UserOrder ord = response.getBody();
-        Assert.assertNull(ord);
+    @Test
+    public void submit_idempotency_key_known_to_store_replays_order() {
+        User user = createTestUserWithCart();
+        UserOrder order = createTestOrder(user);
+        order.setId(7L);
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+        when(idempotencyRecordRepository.findById("42:key-1"))
+                .thenReturn(Optional.of(new IdempotencyRecord("42:key-1", 7L)));
+        when(orderRepository.findWithLinesByIdIn(Arrays.asList(7L))).thenReturn(Arrays.asList(order));
+
+        final ResponseEntity<OrderResponse> response = orderController.submit(user.getUsername(), "key-1");
+
+        verify(orderRepository, never()).save(any());
+        Assert.assertEquals("true", response.getHeaders().getFirst(OrderController.IDEMPOTENT_REPLAYED_HEADER));
+        Assert.assertEquals(Long.valueOf(7L), response.getBody().getId());
+    }
+
+    @Test
+    public void submit_concurrent_idempotency_key_replays_winning_order() {
+        User user = createTestUserWithCart();
+        UserOrder winner = createTestOrder(user);
+        winner.setId(7L);
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+        when(idempotencyRecordRepository.findById("42:key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new IdempotencyRecord("42:key-1", 7L)));
+        when(idempotencyRecordRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(orderRepository.findWithLinesByIdIn(Arrays.asList(7L))).thenReturn(Arrays.asList(winner));
+
+        final ResponseEntity<OrderResponse> response = orderController.submit(user.getUsername(), "key-1");
+
+        Assert.assertEquals(200, response.getStatusCode().value());
+        Assert.assertEquals("true", response.getHeaders().getFirst(OrderController.IDEMPOTENT_REPLAYED_HEADER));
+        Assert.assertEquals(Long.valueOf(7L), response.getBody().getId());
+    }
+
+    @Test
+    public void submit_invalid_idempotency_key_case() {
+        final ResponseEntity<OrderResponse> empty = orderController.submit("testUser", "");
+        final ResponseEntity<OrderResponse> tooLong = orderController.submit("testUser",
+                new String(new char[OrderController.MAX_IDEMPOTENCY_KEY_LENGTH + 1]).replace('\0', 'k'));
+
+        Assert.assertEquals(400, empty.getStatusCode().value());
+        Assert.assertEquals(400, tooLong.getStatusCode().value());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    public void get_order_page_happy_path() {
+        User user = createTestUser();
+        UserOrder first = createTestOrder(user);
+        UserOrder second = createTestOrder(user);
+        second.setId(2L);
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+        when(orderRepository.findIdsByUser(user, 0L, PageRequest.of(0, 3))).thenReturn(Arrays.asList(1L, 2L, 3L));
+        when(orderRepository.findWithLinesByIdIn(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(first, second));
+
+        final ResponseEntity<OrderPage> response = orderController.getOrderPageForUser(user.getUsername(), null, 2);
+
+        Assert.assertNotNull(response);
+        Assert.assertEquals(200, response.getStatusCode().value());
+
+        OrderPage page = response.getBody();
+        Assert.assertNotNull(page);
+        Assert.assertEquals(2, page.getOrders().size());
+        Assert.assertEquals(Long.valueOf(1L), page.getOrders().get(0).getId());
+        Assert.assertEquals(Long.valueOf(2L), page.getOrders().get(1).getId());
+        Assert.assertEquals(Cursors.encode(2L), page.getNextCursor());
+    }
+
+    @Test
+    public void get_order_page_last_page() {
+        User user = createTestUser();
+        UserOrder order = createTestOrder(user);
+        order.setId(3L);
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+        when(orderRepository.findIdsByUser(user, 2L, PageRequest.of(0, 3))).thenReturn(Arrays.asList(3L));
+        when(orderRepository.findWithLinesByIdIn(Arrays.asList(3L))).thenReturn(Arrays.asList(order));
+
+        final ResponseEntity<OrderPage> response =
+                orderController.getOrderPageForUser(user.getUsername(), Cursors.encode(2L), 2);
+
+        Assert.assertEquals(200, response.getStatusCode().value());
+        Assert.assertEquals(1, response.getBody().getOrders().size());
+        Assert.assertNull(response.getBody().getNextCursor());
+    }
+
+    @Test
+    public void get_order_page_bad_cursor_case() {
+        final ResponseEntity<OrderPage> response = orderController.getOrderPageForUser("testUser", "%%%", 2);
+
+        Assert.assertEquals(400, response.getStatusCode().value());
+        verify(orderRepository, never()).findIdsByUser(any(), any(), any());
+    }
+
+    @Test
+    public void export_orders_csv() throws Exception {
+        User user = createTestUser();
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+
+        final ResponseEntity<StreamingResponseBody> response = orderController.exportOrdersForUser(user.getUsername(), "csv");
+
+        Assert.assertEquals(200, response.getStatusCode().value());
+        Assert.assertEquals(OrderController.CSV, response.getHeaders().getContentType());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        verify(orderExportService).writeCsv(user, out);
+    }
+
+    @Test
+    public void export_orders_unknown_format_case() {
+        final ResponseEntity<StreamingResponseBody> response = orderController.exportOrdersForUser("testUser", "xml");
+
+        Assert.assertEquals(400, response.getStatusCode().value());
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    public void export_orders_not_found_case() {
+        when(userRepository.findByUsername("testUser")).thenReturn(null);
+
+        final ResponseEntity<StreamingResponseBody> response = orderController.exportOrdersForUser("testUser", "ndjson");
+
+        Assert.assertEquals(404, response.getStatusCode().value());
+        Assert.assertNull(response.getBody());
     }
 
     private User createTestUser() {
@@ -115,10 +340,24 @@ public class OrderControllerTests {
         return user;
     }
 
-    private Cart createTestCart(User user) {
+    private User createTestUserWithCart() {
+        User user = createTestUser();
+        user.setId(42L);
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("testItem");
+        item.setPrice(new BigDecimal(200));
+        Cart cart = createTestCart(user, item);
+        cart.setId(7L);
+        user.setCart(cart);
+        when(cartRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(cart));
+        return user;
+    }
+
+    private Cart createTestCart(User user, Item item) {
         Cart cart = new Cart();
         cart.setUser(user);
-        cart.setTotal(new BigDecimal(200));
+        cart.addItem(item);
         return cart;
     }
 
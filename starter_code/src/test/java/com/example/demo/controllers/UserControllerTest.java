@@ -5,11 +5,13 @@ import com.example.demo.model.persistence.User;
 import com.example.demo.model.persistence.repositories.CartRepository;
 import com.example.demo.model.persistence.repositories.UserRepository;
 import com.example.demo.model.requests.CreateUserRequest;
+import com.example.demo.model.responses.UserResponse;
+import com.example.demo.security.PasswordHashingRejectedException;
+import com.example.demo.security.PasswordHashingService;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.Optional;
 
@@ -23,35 +25,35 @@ public class UserControllerTest {
 
     private CartRepository cartRepository = mock(CartRepository.class);
 
-    private BCryptPasswordEncoder bCryptPasswordEncoder = mock(BCryptPasswordEncoder.class);
+    private PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
 
     @Before
     public void setup() throws NoSuchFieldException, IllegalAccessException {
         userController = new UserController();
         TestUtils.injectObjects(userController, "userRepository" , userRepository);
         TestUtils.injectObjects(userController, "cartRepository", cartRepository);
-        TestUtils.injectObjects(userController, "bCryptPasswordEncoder", bCryptPasswordEncoder);
+        TestUtils.injectObjects(userController, "passwordHashingService", passwordHashingService);
     }
 
     @Test
     public void create_user_happy_path() throws Exception {
-        when(bCryptPasswordEncoder.encode("testPassword")).thenReturn("thisIsHashed");
+        when(passwordHashingService.encode("testPassword")).thenReturn("thisIsHashed");
         CreateUserRequest createUserRequest = new CreateUserRequest();
         createUserRequest.setUsername("test");
         createUserRequest.setPassword("testPassword");
         createUserRequest.setConfirmPassword("testPassword");
 
-        final ResponseEntity<User> response = userController.createUser(createUserRequest);
+        final ResponseEntity<UserResponse> response = userController.createUser(createUserRequest);
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(200, response.getStatusCodeValue());
+        Assert.assertEquals(200, response.getStatusCode().value());
 
-        User u = response.getBody();
+        UserResponse u = response.getBody();
 
         Assert.assertNotNull(u);
-        Assert.assertEquals(0, u.getId());
+        Assert.assertEquals(Long.valueOf(0), u.getId());
         Assert.assertEquals("test", u.getUsername());
-        Assert.assertEquals("thisIsHashed", u.getPassword());
+        verify(userRepository).save(argThat(saved -> "thisIsHashed".equals(saved.getPassword())));
     }
 
     @Test
@@ -61,13 +63,13 @@ public class UserControllerTest {
         createUserRequest.setPassword("testPa");
         createUserRequest.setConfirmPassword("testPa");
 
-        final ResponseEntity<User> response = userController.createUser(createUserRequest);
+        final ResponseEntity<UserResponse> response = userController.createUser(createUserRequest);
 
-        verify(bCryptPasswordEncoder, times(0)).encode(anyString());
+        verify(passwordHashingService, times(0)).encode(anyString());
         Assert.assertNotNull(response);
-        Assert.assertEquals(400, response.getStatusCodeValue());
+        Assert.assertEquals(400, response.getStatusCode().value());
 
-        User u = response.getBody();
+        UserResponse u = response.getBody();
         Assert.assertNull(u);
     }
 
@@ -78,31 +80,47 @@ public class UserControllerTest {
         createUserRequest.setPassword("testPassword");
         createUserRequest.setConfirmPassword("testPassword1");
 
-        final ResponseEntity<User> response = userController.createUser(createUserRequest);
+        final ResponseEntity<UserResponse> response = userController.createUser(createUserRequest);
 
-        verify(bCryptPasswordEncoder, times(0)).encode(anyString());
+        verify(passwordHashingService, times(0)).encode(anyString());
         Assert.assertNotNull(response);
-        Assert.assertEquals(400, response.getStatusCodeValue());
+        Assert.assertEquals(400, response.getStatusCode().value());
 
-        User u = response.getBody();
+        UserResponse u = response.getBody();
         Assert.assertNull(u);
     }
 
+    @Test
+    public void create_user_hashing_pool_full_case() throws Exception {
+        when(passwordHashingService.encode("testPassword")).thenThrow(new PasswordHashingRejectedException());
+        CreateUserRequest createUserRequest = new CreateUserRequest();
+        createUserRequest.setUsername("test");
+        createUserRequest.setPassword("testPassword");
+        createUserRequest.setConfirmPassword("testPassword");
+
+        final ResponseEntity<UserResponse> response = userController.createUser(createUserRequest);
+
+        verify(userRepository, times(0)).save(any());
+        Assert.assertNotNull(response);
+        Assert.assertEquals(429, response.getStatusCode().value());
+        Assert.assertNull(response.getBody());
+    }
+
     @Test
     public void find_user_by_username_happy_path() throws Exception {
         User user = new User();
         user.setUsername("testUser");
         when(userRepository.findByUsername("testUser")).thenReturn(user);
 
-        final ResponseEntity<User> response = userController.findByUserName("testUser");
+        final ResponseEntity<UserResponse> response = userController.findByUserName("testUser");
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(200, response.getStatusCodeValue());
+        Assert.assertEquals(200, response.getStatusCode().value());
 
-        User u = response.getBody();
+        UserResponse u = response.getBody();
 
         Assert.assertNotNull(u);
-        Assert.assertEquals(user, u);
+        Assert.assertEquals("testUser", u.getUsername());
     }
 
     @Test
@@ -111,14 +129,14 @@ public class UserControllerTest {
         user.setId(2);
         when(userRepository.findById(2L)).thenReturn(Optional.of(user));
 
-        final ResponseEntity<User> response = userController.findById(2L);
+        final ResponseEntity<UserResponse> response = userController.findById(2L);
 
         Assert.assertNotNull(response);
-        Assert.assertEquals(200, response.getStatusCodeValue());
+        Assert.assertEquals(200, response.getStatusCode().value());
 
-        User u = response.getBody();
+        UserResponse u = response.getBody();
 
         Assert.assertNotNull(u);
-        Assert.assertEquals(user, u);
+        Assert.assertEquals(Long.valueOf(2), u.getId());
     }
 }
@@ -0,0 +1,76 @@
+package com.example.demo.datasource;
+
+import com.example.demo.EcommenceApplication;
+import com.example.demo.security.PasswordHashingService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ConnectionPoolTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private PoolSizingCheck poolSizingCheck;
+
+    @MockBean
+    private PasswordHashingService passwordHashingService;
+
+    @Test
+    public void pool_settings_come_from_the_configuration() {
+        Assert.assertEquals("primary", dataSource.getPoolName());
+        Assert.assertEquals(dataSource.getMaximumPoolSize(), dataSource.getMinimumIdle());
+        Assert.assertTrue(dataSource.getLeakDetectionThreshold() > 0);
+        Assert.assertEquals(Collections.emptyList(), poolSizingCheck.warnings(dataSource));
+    }
+
+    @Test
+    public void the_startup_check_flags_risky_pool_settings() {
+        try(HikariDataSource pool = new HikariDataSource()) {
+            pool.setMaximumPoolSize(500);
+            pool.setMinimumIdle(5);
+
+            Assert.assertEquals(3, poolSizingCheck.warnings(pool).size());
+        }
+    }
+
+    @Test
+    public void a_sign_up_does_not_hold_a_connection_while_the_password_is_hashed() throws Exception {
+        AtomicInteger activeWhileHashing = new AtomicInteger(-1);
+        when(passwordHashingService.encode(anyString())).thenAnswer(invocation -> {
+            activeWhileHashing.set(dataSource.getHikariPoolMXBean().getActiveConnections());
+            return "hashed";
+        });
+        Map<String, String> request = new HashMap<>();
+        request.put("username", "poolUser");
+        request.put("password", "testPassword");
+        request.put("confirmPassword", "testPassword");
+
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/user/create", request, String.class);
+
+        Assert.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assert.assertEquals(0, activeWhileHashing.get());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.datasource;
+
+import com.example.demo.EcommenceApplication;
+import com.example.demo.controllers.ItemController;
+import com.example.demo.controllers.UserController;
+import com.example.demo.model.persistence.CatalogImportCheckpoint;
+import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.repositories.CatalogImportCheckpointRepository;
+import com.example.demo.model.persistence.repositories.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Runs the application against two in-memory H2 databases, a primary and a replica that
+ * nothing replicates to. The test plays the replication: it changes the replica's copy
+ * of the data and sets its heartbeat to make it current or lagging.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class, properties = {
+        "spring.datasource.url=" + ReplicaRoutingTests.PRIMARY_URL,
+        "replicas.urls=" + ReplicaRoutingTests.REPLICA_URL,
+        "replicas.max-lag-millis=5000"})
+public class ReplicaRoutingTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER";
+
+    @Autowired
+    private ItemController itemController;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CatalogImportCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    private JdbcTemplate replica;
+
+    @Before
+    public void setup() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        replica = new JdbcTemplate(dataSource);
+        replica.update("update item set name = 'Replica Widget' where id = 1");
+    }
+
+    @Test
+    public void read_only_transactions_read_from_a_current_replica() {
+        replicateHeartbeat(System.currentTimeMillis());
+
+        Assert.assertEquals("Replica Widget", firstItemName());
+    }
+
+    @Test
+    public void a_lagging_replica_is_skipped() {
+        replicateHeartbeat(System.currentTimeMillis() - 60_000);
+
+        Assert.assertEquals("Round Widget", firstItemName());
+    }
+
+    @Test
+    public void a_replica_that_cannot_be_read_is_skipped() {
+        replicateHeartbeat(System.currentTimeMillis());
+        replica.update("alter table replication_heartbeat rename to replication_heartbeat_gone");
+        try {
+            replicaLagMonitor.beat();
+
+            Assert.assertEquals("Round Widget", firstItemName());
+        } finally {
+            replica.update("alter table replication_heartbeat_gone rename to replication_heartbeat");
+        }
+    }
+
+    @Test
+    public void writes_and_other_reads_go_to_the_primary() {
+        replicateHeartbeat(System.currentTimeMillis());
+        User user = new User();
+        user.setUsername("routedUser");
+        user.setPassword("notHashed");
+        userRepository.save(user);
+        checkpointRepository.save(new CatalogImportCheckpoint("routedImport"));
+
+        Assert.assertNotNull(userRepository.findByUsername("routedUser"));
+        Assert.assertTrue(checkpointRepository.findById("routedImport").isPresent());
+        Assert.assertEquals(HttpStatus.NOT_FOUND, userController.findByUserName("routedUser").getStatusCode());
+
+        replicateHeartbeat(System.currentTimeMillis() - 60_000);
+        Assert.assertEquals(HttpStatus.OK, userController.findByUserName("routedUser").getStatusCode());
+    }
+
+    private void replicateHeartbeat(long beatMillis) {
+        replica.update("update replication_heartbeat set beat_millis = ? where id = 1", beatMillis);
+        replicaLagMonitor.beat();
+    }
+
+    private String firstItemName() {
+        return itemController.getItemPage(null, 1).getBody().getItems().get(0).getName();
+    }
+}
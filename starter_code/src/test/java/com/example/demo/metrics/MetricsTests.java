@@ -0,0 +1,89 @@
+package com.example.demo.metrics;
+
+import com.auth0.jwt.JWT;
+import com.example.demo.EcommenceApplication;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.security.SecurityConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    public void repository_calls_are_timed() {
+        itemRepository.findById(1L);
+
+        Timer timer = meterRegistry.find(RepositoryMetricsPostProcessor.METRIC_NAME)
+                .tag("repository", "ItemRepository")
+                .tag("method", "findById")
+                .tag("state", "SUCCESS")
+                .timer();
+        Assert.assertNotNull(timer);
+        Assert.assertTrue(timer.count() > 0);
+    }
+
+    @Test
+    public void authenticated_requests_record_jwt_verification() throws Exception {
+        String token = JWT.create()
+                .withSubject("metricsUser")
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60_000))
+                .sign(HMAC512(SecurityConstants.SECRET.getBytes()));
+
+        mockMvc.perform(get("/api/item").header(SecurityConstants.HEADER_STRING, SecurityConstants.TOKEN_PREFIX + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/item").header(SecurityConstants.HEADER_STRING, SecurityConstants.TOKEN_PREFIX + token))
+                .andExpect(status().isOk());
+
+        Assert.assertEquals(1, meterRegistry.get("security.jwt.verify").tag("result", "verified").timer().count());
+        Assert.assertTrue(meterRegistry.get("security.jwt.verify").tag("result", "cached").timer().count() >= 1);
+        Assert.assertTrue(meterRegistry.get("http.server.requests").tag("uri", "/api/item").timer().count() >= 2);
+    }
+
+    @Test
+    public void prometheus_endpoint_exposes_histograms_and_pool_state() throws Exception {
+        mockMvc.perform(get("/api/item")).andExpect(status().isUnauthorized());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Assert.assertTrue(scrape.contains("http_server_requests_seconds_bucket"));
+        Assert.assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket"));
+        Assert.assertTrue(scrape.contains("security_password_hashing_queue"));
+        Assert.assertTrue(scrape.contains("security_bcrypt_verify_seconds_bucket"));
+        Assert.assertTrue(scrape.contains("hikaricp_connections_active{pool=\"primary\"}"));
+        Assert.assertTrue(scrape.contains("hikaricp_connections_idle{pool=\"primary\"}"));
+        Assert.assertTrue(scrape.contains("hikaricp_connections_pending{pool=\"primary\"}"));
+        Assert.assertTrue(scrape.contains("hikaricp_connections_acquire_seconds_bucket"));
+        Assert.assertTrue(scrape.contains("cache_gets_total{cache=\"userDetails\""));
+        Assert.assertTrue(scrape.contains("cache_gets_total{cache=\"items\""));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.model.persistence.repositories;
+
+import com.example.demo.EcommenceApplication;
+import com.example.demo.model.persistence.Item;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class)
+public class ItemRepositoryCacheTests {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    public void batch_writes_evict_the_cached_catalog() {
+        int catalogSize = itemRepository.findAll().size();
+        Assert.assertTrue(itemRepository.findByName("Cached Lamp").isEmpty());
+
+        List<Item> saved = itemRepository.saveAllAndFlush(Collections.singletonList(createItem("Cached Lamp")));
+        Long id = saved.get(0).getId();
+
+        Assert.assertEquals(catalogSize + 1, itemRepository.findAll().size());
+        Assert.assertEquals(1, itemRepository.findByName("Cached Lamp").size());
+        Assert.assertTrue(itemRepository.findById(id).isPresent());
+
+        itemRepository.deleteAllByIdInBatch(Collections.singletonList(id));
+
+        Assert.assertEquals(catalogSize, itemRepository.findAll().size());
+        Assert.assertTrue(itemRepository.findByName("Cached Lamp").isEmpty());
+        Assert.assertFalse(itemRepository.findById(id).isPresent());
+    }
+
+    @Test
+    public void delete_all_by_id_evicts_the_cached_item() {
+        Long id = itemRepository.save(createItem("Cached Chair")).getId();
+        Assert.assertTrue(itemRepository.findById(id).isPresent());
+
+        itemRepository.deleteAllById(Collections.singletonList(id));
+
+        Assert.assertFalse(itemRepository.findById(id).isPresent());
+    }
+
+    private Item createItem(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setPrice(new BigDecimal("4.99"));
+        item.setDescription("An item that is cached");
+        return item;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo.model.persistence.repositories;
+
+import com.example.demo.EcommenceApplication;
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.UserOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class OrderRepositoryTests {
+
+    private static final int ORDERS = 30;
+
+    private static final int LARGE_ORDER_LINES = 120;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @Before
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void order_history_loads_in_one_query() {
+        String username = createUserWithOrders("historyUser", ORDERS);
+
+        String json = transactionTemplate.execute(status -> {
+            User user = userRepository.findByUsername(username);
+            statistics.clear();
+            List<UserOrder> orders = orderRepository.findByUser(user);
+            String body = toJson(orders);
+            Assert.assertEquals(ORDERS, orders.size());
+            Assert.assertEquals(1, statistics.getPrepareStatementCount());
+            return body;
+        });
+        Assert.assertTrue(json.contains("Round Widget"));
+    }
+
+    @Test
+    public void order_history_keeps_line_quantities() {
+        String username = createUserWithOrders("repeatUser", 2);
+
+        transactionTemplate.execute(status -> {
+            List<UserOrder> orders = orderRepository.findByUser(userRepository.findByUsername(username));
+            Assert.assertEquals(2, orders.size());
+            for (UserOrder order : orders) {
+                Assert.assertEquals(2, order.getLines().size());
+                Assert.assertEquals(2, order.getLines().get(0).getQuantity());
+                Assert.assertEquals(1, order.getLines().get(1).getQuantity());
+                Assert.assertEquals(username, order.getUser().getUsername());
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void large_order_lines_are_inserted_in_batches() {
+        String username = createUserWithOrders("largeOrderUser", 0);
+        Cart basket = new Cart();
+        basket.setUser(userRepository.findByUsername(username));
+        for (long id = 1; id <= LARGE_ORDER_LINES; id++) {
+            Item item = new Item();
+            item.setId(id);
+            item.setName("Item " + id);
+            item.setPrice(BigDecimal.ONE);
+            basket.addItem(item);
+        }
+
+        statistics.clear();
+        transactionTemplate.execute(status -> orderRepository.save(UserOrder.createFromCart(basket)));
+
+        // one insert per batch of 50 lines plus the order and its sequence calls, not one per line
+        Assert.assertTrue(String.valueOf(statistics.getPrepareStatementCount()),
+                statistics.getPrepareStatementCount() < 10);
+        Assert.assertEquals(LARGE_ORDER_LINES, orderRepository.findByUser(basket.getUser()).get(0).getLines().size());
+    }
+
+    private String createUserWithOrders(String username, int count) {
+        return transactionTemplate.execute(status -> {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword("password");
+            Cart cart = new Cart();
+            cart.setUser(user);
+            user.setCart(cart);
+            userRepository.save(user);
+
+            Cart basket = new Cart();
+            basket.setUser(user);
+            basket.addItem(itemRepository.getReferenceById(1L), 2);
+            basket.addItem(itemRepository.getReferenceById(2L));
+            for (int i = 0; i < count; i++) {
+                orderRepository.save(UserOrder.createFromCart(basket));
+            }
+            return username;
+        });
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
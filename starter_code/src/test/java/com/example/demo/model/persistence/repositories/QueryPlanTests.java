@@ -0,0 +1,119 @@
+package com.example.demo.model.persistence.repositories;
+
+import com.example.demo.EcommenceApplication;
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Runs H2's EXPLAIN on the SQL Hibernate actually issues for the hot lookups and checks
+ * that every table is reached through an index rather than a table scan.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class, properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.demo.model.persistence.repositories.QueryPlanTests$RecordingStatementInspector")
+public class QueryPlanTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @Before
+    public void setup() {
+        user = userRepository.findByUsername("planUser");
+        if (user == null) {
+            user = new User();
+            user.setUsername("planUser");
+            user.setPassword("password");
+            Cart cart = new Cart();
+            cart.setUser(user);
+            user.setCart(cart);
+            user = userRepository.save(user);
+        }
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    public void find_user_by_username_uses_index() {
+        userRepository.findByUsername("noSuchUser");
+
+        assertIndexScan(explain(recorded("username"), "noSuchUser"), "UK_USER_USERNAME");
+    }
+
+    @Test
+    public void find_item_by_name_uses_index() {
+        itemRepository.findByName("No Such Widget");
+
+        assertIndexScan(explain(recorded("from item"), "No Such Widget"), "IDX_ITEM_NAME");
+    }
+
+    @Test
+    public void find_orders_by_user_uses_index() {
+        orderRepository.findByUser(user);
+
+        String plan = explain(recorded("from user_order"), user.getId());
+        assertIndexScan(plan, "IDX_USER_ORDER_USER_ID");
+        assertIndexScan(plan, "IDX_ORDER_LINE_ORDER_ID");
+    }
+
+    @Test
+    public void find_cart_by_user_uses_index() {
+        Cart cart = cartRepository.findByUser(user);
+
+        Assert.assertEquals(user.getCart().getId(), cart.getId());
+        assertIndexScan(explain(recorded("from user"), user.getId()), "PRIMARY_KEY");
+    }
+
+    private String recorded(String fragment) {
+        return RecordingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.contains(fragment))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No statement containing " + fragment
+                        + " in " + RecordingStatementInspector.STATEMENTS));
+    }
+
+    private String explain(String sql, Object parameter) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class, parameter);
+    }
+
+    private static void assertIndexScan(String plan, String index) {
+        Assert.assertFalse(plan, plan.contains("tableScan"));
+        Assert.assertTrue(plan, plan.contains(index));
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.search;
+
+import com.example.demo.EcommenceApplication;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class)
+public class ItemSearchIndexTests {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Test
+    public void batch_deletes_remove_the_items_from_the_index() {
+        Item byEntity = itemRepository.save(createItem(null, "Batch Lantern"));
+        Item byId = itemRepository.save(createItem(null, "Batch Kettle"));
+        Assert.assertEquals(1, itemSearchIndex.search("lantern", 10).size());
+        Assert.assertEquals(1, itemSearchIndex.search("kettle", 10).size());
+
+        itemRepository.deleteAllInBatch(Collections.singletonList(byEntity));
+        itemRepository.deleteAllByIdInBatch(Collections.singletonList(byId.getId()));
+
+        Assert.assertTrue(itemSearchIndex.search("lantern", 10).isEmpty());
+        Assert.assertTrue(itemSearchIndex.search("kettle", 10).isEmpty());
+        Assert.assertEquals(1, itemSearchIndex.search("round widget", 10).size());
+    }
+
+    @Test
+    public void fuzzy_candidates_need_more_than_a_shared_first_letter() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.index(createItem(1L, "Widget"));
+        index.index(createItem(2L, "Wombat"));
+        index.index(createItem(3L, "Gadget"));
+
+        Set<String> candidates = index.fuzzyCandidates("widgit", 1);
+
+        Assert.assertEquals(Collections.singleton("widget"), candidates);
+        // a typo in the first letter or a transposition still finds the term
+        Assert.assertEquals(Arrays.asList(1L), ids(index, "qidget"));
+        Assert.assertEquals(Arrays.asList(1L), ids(index, "wdiget"));
+    }
+
+    private static List<Long> ids(ItemSearchIndex index, String query) {
+        return index.search(query, 10).stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+    private static Item createItem(Long id, String name) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setPrice(new BigDecimal("9.99"));
+        item.setDescription("An item to search for");
+        return item;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.security;
+
+import com.example.demo.EcommenceApplication;
+import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.repositories.UserRepository;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Logins while the password hashing pool is full are answered with 429 whether or not
+ * the username exists, so the status does not tell the two apart.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class)
+@AutoConfigureMockMvc
+public class LoginRejectionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoginMetrics loginMetrics;
+
+    @MockBean
+    private PasswordHashingService passwordHashingService;
+
+    @Before
+    public void setup() {
+        when(passwordHashingService.encode(any())).thenThrow(new PasswordHashingRejectedException());
+        when(passwordHashingService.matches(any(), any())).thenThrow(new PasswordHashingRejectedException());
+    }
+
+    @Test
+    public void unknown_user_login_is_rejected_with_429_while_the_pool_is_full() throws Exception {
+        mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"noSuchUser\",\"password\":\"testPassword\"}"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    public void a_rejection_wrapped_by_the_provider_is_answered_with_429() throws Exception {
+        AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+        when(authenticationManager.authenticate(any())).thenThrow(
+                new InternalAuthenticationServiceException("wrapped", new PasswordHashingRejectedException()));
+        JWTAuthenticationFilter filter = new JWTAuthenticationFilter(authenticationManager, loginMetrics);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setContent("{\"username\":\"noSuchUser\",\"password\":\"testPassword\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Assert.assertNull(filter.attemptAuthentication(request, response));
+        Assert.assertEquals(429, response.getStatus());
+    }
+
+    @Test
+    public void known_user_login_is_rejected_with_429_while_the_pool_is_full() throws Exception {
+        if(userRepository.findByUsername("throttledUser") == null) {
+            User user = new User();
+            user.setUsername("throttledUser");
+            user.setPassword("hashed");
+            userRepository.save(user);
+        }
+
+        mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"throttledUser\",\"password\":\"testPassword\"}"))
+                .andExpect(status().isTooManyRequests());
+    }
+}
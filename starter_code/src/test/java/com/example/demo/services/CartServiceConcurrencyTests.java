@@ -0,0 +1,126 @@
+package com.example.demo.services;
+
+import com.example.demo.EcommenceApplication;
+import com.example.demo.TestUtils;
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.repositories.CartRepository;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class)
+public class CartServiceConcurrencyTests {
+
+    private static final int THREADS = 32;
+    private static final int UPDATES_PER_THREAD = 25;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Test
+    public void concurrent_adds_lose_no_updates_and_queue_without_holding_connections() throws Exception {
+        // a second service with its own locks stands in for another application
+        // instance, so updates also race through the row lock and version check
+        CartService otherInstance = new CartService();
+        TestUtils.injectObjects(otherInstance, "cartRepository", cartRepository);
+        TestUtils.injectObjects(otherInstance, "transactionTemplate", transactionTemplate);
+
+        Long cartId = cartRepository.save(new Cart()).getId();
+        Item item = itemRepository.findById(1L).get();
+        AtomicInteger peakActiveConnections = new AtomicInteger();
+        AtomicInteger failedUpdates = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            CartService service = t % 2 == 0 ? cartService : otherInstance;
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                    try {
+                        service.update(cartId, cart -> {
+                            peakActiveConnections.accumulateAndGet(
+                                    dataSource.getHikariPoolMXBean().getActiveConnections(), Math::max);
+                            cart.addItem(item, 1);
+                        });
+                    } catch (ConcurrencyFailureException e) {
+                        failedUpdates.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        // without the striped lock every waiting update holds a connection while it
+        // waits for the row lock, and the hot cart takes the whole pool
+        Assert.assertEquals(0, failedUpdates.get());
+        Assert.assertTrue("peak of " + peakActiveConnections.get() + " active connections",
+                peakActiveConnections.get() <= 2);
+        int expected = THREADS * UPDATES_PER_THREAD;
+        transactionTemplate.execute(status -> {
+            Cart cart = cartRepository.findById(cartId).get();
+            Assert.assertEquals(1, cart.getLines().size());
+            Assert.assertEquals(expected, cart.getLine(item.getId()).getQuantity());
+            Assert.assertEquals(0, item.getPrice().multiply(BigDecimal.valueOf(expected)).compareTo(cart.getTotal()));
+            return null;
+        });
+    }
+
+    @Test
+    public void removing_and_re_adding_an_item_in_one_update_keeps_its_line() {
+        Long cartId = cartRepository.save(new Cart()).getId();
+        Item item = itemRepository.findById(1L).get();
+        cartService.update(cartId, cart -> cart.addItem(item, 2));
+
+        cartService.update(cartId, cart -> {
+            cart.removeLine(item.getId());
+            cart.addItem(item, 3);
+            cart.removeItem(item, 3);
+            cart.addItem(item, 1);
+        });
+
+        transactionTemplate.execute(status -> {
+            Cart cart = cartRepository.findById(cartId).get();
+            Assert.assertEquals(1, cart.getLines().size());
+            Assert.assertEquals(1, cart.getLine(item.getId()).getQuantity());
+            Assert.assertEquals(0, item.getPrice().compareTo(cart.getTotal()));
+            return null;
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.services;
+
+import com.example.demo.EcommenceApplication;
+import com.example.demo.TestUtils;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class)
+public class CatalogImportRunnerTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    public void updated_file_with_the_same_name_is_imported_again() throws Exception {
+        File file = folder.newFile("catalog.csv");
+        write(file, "name,price,description\nRunner Lamp,1.00,A lamp\n", 1_000_000_000_000L);
+        CatalogImportRunner runner = runner(file);
+
+        Assert.assertEquals(0, runner.runImport());
+        Assert.assertEquals(CatalogImportRunner.SKIPPED_EXIT_CODE, runner.runImport());
+
+        write(file, "name,price,description\nRunner Lamp,12.50,A lamp\nRunner Shade,3.00,A shade\n", 1_000_000_060_000L);
+
+        Assert.assertEquals(0, runner.runImport());
+        List<Item> lamps = itemRepository.findByName("Runner Lamp");
+        Assert.assertEquals(1, lamps.size());
+        Assert.assertEquals(0, new BigDecimal("12.50").compareTo(lamps.get(0).getPrice()));
+        Assert.assertEquals(1, itemRepository.findByName("Runner Shade").size());
+    }
+
+    @Test
+    public void explicit_import_id_is_not_run_again() throws Exception {
+        File file = folder.newFile("explicit.csv");
+        write(file, "name,price,description\nRunner Desk,40.00,A desk\n", 1_000_000_000_000L);
+        CatalogImportRunner runner = runner(file);
+        TestUtils.injectObjects(runner, "importId", "runner-explicit");
+
+        Assert.assertEquals(0, runner.runImport());
+
+        write(file, "name,price,description\nRunner Desk,45.00,A desk\n", 1_000_000_060_000L);
+
+        Assert.assertEquals(CatalogImportRunner.SKIPPED_EXIT_CODE, runner.runImport());
+        Assert.assertEquals(0, new BigDecimal("40.00").compareTo(itemRepository.findByName("Runner Desk").get(0).getPrice()));
+    }
+
+    private CatalogImportRunner runner(File file) throws Exception {
+        CatalogImportRunner runner = new CatalogImportRunner();
+        TestUtils.injectObjects(runner, "catalogImportService", catalogImportService);
+        TestUtils.injectObjects(runner, "file", file.getPath());
+        TestUtils.injectObjects(runner, "format", "");
+        TestUtils.injectObjects(runner, "importId", "");
+        TestUtils.injectObjects(runner, "exit", false);
+        return runner;
+    }
+
+    private static void write(File file, String csv, long modifiedMillis) throws Exception {
+        Files.write(file.toPath(), csv.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(modifiedMillis));
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.demo.services;
+
+import com.example.demo.EcommenceApplication;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.model.responses.CatalogImportResult;
+import org.hibernate.Session;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class, properties = "catalog.import.chunk-size=3")
+public class CatalogImportServiceTests {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void csv_import_upserts_by_name_and_reports_rejected_rows() throws Exception {
+        Item existing = new Item();
+        existing.setName("Csv Gadget");
+        existing.setPrice(new BigDecimal("1.00"));
+        existing.setDescription("Old description");
+        itemRepository.save(existing);
+
+        String csv = "description,name,price\n"
+                + "\"A gadget, improved\",Csv Gadget,4.50\n"
+                + "A new gizmo,Csv Gizmo,2\n"
+                + "No price,Csv Broken,\n"
+                + "Negative,Csv Negative,-1\n"
+                + "\"Spans\ntwo lines\",Csv Multiline,3.25\n";
+
+        CatalogImportResult result = catalogImportService.importCatalog("csv-upsert", CatalogImportService.Format.CSV, stream(csv));
+
+        Assert.assertTrue(result.isCompleted());
+        Assert.assertEquals(5, result.getRowsCommitted());
+        Assert.assertEquals(2, result.getInserted());
+        Assert.assertEquals(1, result.getUpdated());
+        Assert.assertEquals(2, result.getRejected());
+        Assert.assertEquals(Arrays.asList("row 3: price is required", "row 4: price must not be negative"), result.getErrors());
+
+        List<Item> gadgets = itemRepository.findByName("Csv Gadget");
+        Assert.assertEquals(1, gadgets.size());
+        Assert.assertEquals(existing.getId(), gadgets.get(0).getId());
+        Assert.assertEquals(0, new BigDecimal("4.50").compareTo(gadgets.get(0).getPrice()));
+        Assert.assertEquals("A gadget, improved", gadgets.get(0).getDescription());
+        Assert.assertEquals("Spans\ntwo lines", itemRepository.findByName("Csv Multiline").get(0).getDescription());
+        Assert.assertTrue(itemRepository.findByName("Csv Broken").isEmpty());
+    }
+
+    @Test
+    public void ndjson_import_accepts_numeric_and_string_prices() throws Exception {
+        String ndjson = "{\"name\":\"Json Lamp\",\"price\":12.99,\"description\":\"A lamp\"}\n"
+                + "\n"
+                + "{\"name\":\"Json Desk\",\"price\":\"120\",\"description\":\"A desk\"}\n"
+                + "{\"name\":\"Json Chair\",\"price\":1.999,\"description\":\"A chair\"}\n"
+                + "not json\n";
+
+        CatalogImportResult result = catalogImportService.importCatalog("ndjson", CatalogImportService.Format.NDJSON, stream(ndjson));
+
+        Assert.assertEquals(4, result.getRowsCommitted());
+        Assert.assertEquals(2, result.getInserted());
+        Assert.assertEquals(Arrays.asList("row 3: price has more than 2 decimal places", "row 4: malformed JSON"), result.getErrors());
+        Assert.assertEquals(0, new BigDecimal("12.99").compareTo(itemRepository.findByName("Json Lamp").get(0).getPrice()));
+    }
+
+    @Test
+    public void interrupted_import_resumes_after_the_last_committed_chunk() throws Exception {
+        StringBuilder csv = new StringBuilder("name,price,description\n");
+        for (int i = 1; i <= 8; i++) {
+            csv.append("Resumed Item ").append(i).append(",1.00,Item ").append(i).append('\n');
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        int cutAfterRow5 = csv.indexOf("Resumed Item 6");
+
+        try {
+            catalogImportService.importCatalog("resumed", CatalogImportService.Format.CSV, failingAfter(bytes, cutAfterRow5));
+            Assert.fail("expected the import to be interrupted");
+        } catch (IOException expected) {
+        }
+        CatalogImportResult interrupted = catalogImportService.findImport("resumed").get();
+        Assert.assertFalse(interrupted.isCompleted());
+        Assert.assertEquals(3, interrupted.getRowsCommitted());
+
+        CatalogImportResult result = catalogImportService.importCatalog("resumed", CatalogImportService.Format.CSV,
+                new ByteArrayInputStream(bytes));
+
+        Assert.assertTrue(result.isCompleted());
+        Assert.assertEquals(8, result.getRowsCommitted());
+        Assert.assertEquals(8, result.getInserted());
+        for (int i = 1; i <= 8; i++) {
+            Assert.assertEquals(1, itemRepository.findByName("Resumed Item " + i).size());
+        }
+
+        CatalogImportResult rerun = catalogImportService.importCatalog("resumed", CatalogImportService.Format.CSV,
+                new ByteArrayInputStream(bytes));
+        Assert.assertTrue(rerun.isSkipped());
+        Assert.assertEquals(8, rerun.getInserted());
+    }
+
+    @Test
+    public void import_within_an_open_request_entity_manager_does_not_keep_the_items_managed() throws Exception {
+        StringBuilder csv = new StringBuilder("name,price,description\n");
+        for (int i = 1; i <= 30; i++) {
+            csv.append("Request Item ").append(i).append(",1.00,Item ").append(i).append('\n');
+        }
+        // binds an EntityManager to the thread for the whole import, as open-in-view does for a request
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            CatalogImportResult result = catalogImportService.importCatalog("request-scoped",
+                    CatalogImportService.Format.CSV, stream(csv.toString()));
+
+            Assert.assertEquals(30, result.getInserted());
+            Assert.assertTrue(entityManager.unwrap(Session.class).getStatistics().getEntityCount() <= 3);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    @Test(expected = InvalidCatalogImportException.class)
+    public void csv_without_the_item_columns_is_refused() throws Exception {
+        catalogImportService.importCatalog("bad-header", CatalogImportService.Format.CSV, stream("title,cost\nA,1\n"));
+    }
+
+    @Test(expected = InvalidCatalogImportException.class)
+    public void csv_with_an_unterminated_quote_in_the_header_is_refused() throws Exception {
+        catalogImportService.importCatalog("bad-quote-header", CatalogImportService.Format.CSV, stream("name,\"price,description\n"));
+    }
+
+    @Test(expected = InvalidCatalogImportException.class)
+    public void import_id_longer_than_the_checkpoint_column_is_refused() throws Exception {
+        char[] id = new char[CatalogImportService.MAX_IMPORT_ID_LENGTH + 1];
+        Arrays.fill(id, 'x');
+        catalogImportService.importCatalog(new String(id), CatalogImportService.Format.CSV, stream("name,price,description\n"));
+    }
+
+    @Test
+    public void csv_with_an_unterminated_quote_rejects_the_row_it_starts() throws Exception {
+        String csv = "name,price,description\n"
+                + "Quoted Lamp,1.00,A lamp\n"
+                + "Quoted Desk,2.00,\"A desk\n"
+                + "Quoted Chair,3.00,A chair\n";
+
+        CatalogImportResult result = catalogImportService.importCatalog("unterminated", CatalogImportService.Format.CSV, stream(csv));
+
+        Assert.assertTrue(result.isCompleted());
+        Assert.assertEquals(2, result.getRowsCommitted());
+        Assert.assertEquals(1, result.getInserted());
+        Assert.assertEquals(Collections.singletonList("row 2: unterminated quoted field"), result.getErrors());
+        Assert.assertTrue(itemRepository.findByName("Quoted Desk").isEmpty());
+    }
+
+    @Test
+    public void csv_reader_handles_quotes_and_line_endings() throws Exception {
+        CsvReader reader = new CsvReader(new StringReader("a,\"b,\"\"c\"\"\",\r\n\r\n\"\",d\n"));
+
+        Assert.assertEquals(Arrays.asList("a", "b,\"c\"", ""), reader.read());
+        Assert.assertEquals(Arrays.asList("", "d"), reader.read());
+        Assert.assertNull(reader.read());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream failingAfter(byte[] bytes, int length) {
+        InputStream data = new ByteArrayInputStream(bytes, 0, length);
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                int b = data.read();
+                if (b < 0) {
+                    throw new IOException("Connection reset");
+                }
+                return b;
+            }
+        };
+    }
+}
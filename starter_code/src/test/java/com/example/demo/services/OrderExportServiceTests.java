@@ -0,0 +1,120 @@
+package com.example.demo.services;
+
+import com.example.demo.EcommenceApplication;
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.UserOrder;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.model.persistence.repositories.OrderRepository;
+import com.example.demo.model.persistence.repositories.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class OrderExportServiceTests {
+
+    private static final int ORDERS = 50;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void ndjson_export_query_count_does_not_grow_with_history() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        User shortHistory = createUserWithOrders("shortHistoryUser", 1);
+        statistics.clear();
+        orderExportService.writeNdjson(shortHistory, new ByteArrayOutputStream());
+        long shortHistoryStatements = statistics.getPrepareStatementCount();
+
+        User user = createUserWithOrders("ndjsonUser", ORDERS);
+        statistics.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.writeNdjson(user, out);
+
+        Assert.assertEquals(shortHistoryStatements, statistics.getPrepareStatementCount());
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        Assert.assertEquals(ORDERS, lines.length);
+        long previousId = 0;
+        for (String line : lines) {
+            JsonNode order = objectMapper.readTree(line);
+            Assert.assertTrue(order.get("id").asLong() > previousId);
+            Assert.assertEquals(2, order.get("lines").size());
+            Assert.assertFalse(order.has("user"));
+            previousId = order.get("id").asLong();
+        }
+    }
+
+    @Test
+    public void csv_export_writes_one_row_per_line() throws Exception {
+        User user = createUserWithOrders("csvUser", 2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.writeCsv(user, out);
+
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        Assert.assertEquals(1 + 2 * 2, lines.length);
+        Assert.assertEquals(OrderExportService.CSV_HEADER, lines[0]);
+        Assert.assertTrue(lines[1].matches("\\d+,csvUser,1,Round Widget,2,2\\.99,7\\.97"));
+    }
+
+    @Test
+    public void csv_fields_are_quoted_when_needed() {
+        Assert.assertEquals("plain", OrderExportService.csvField("plain"));
+        Assert.assertEquals("\"a,b\"", OrderExportService.csvField("a,b"));
+        Assert.assertEquals("\"say \"\"hi\"\"\"", OrderExportService.csvField("say \"hi\""));
+    }
+
+    private User createUserWithOrders(String username, int count) {
+        return transactionTemplate.execute(status -> {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword("password");
+            Cart cart = new Cart();
+            cart.setUser(user);
+            user.setCart(cart);
+            userRepository.save(user);
+
+            Cart basket = new Cart();
+            basket.setUser(user);
+            basket.addItem(itemRepository.getReferenceById(1L), 2);
+            basket.addItem(itemRepository.getReferenceById(2L));
+            for (int i = 0; i < count; i++) {
+                orderRepository.save(UserOrder.createFromCart(basket));
+            }
+            return user;
+        });
+    }
+}
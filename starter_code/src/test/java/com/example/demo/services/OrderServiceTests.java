@@ -0,0 +1,152 @@
+package com.example.demo.services;
+
+import com.example.demo.EcommenceApplication;
+import com.example.demo.model.persistence.Cart;
+import com.example.demo.model.persistence.IdempotencyRecord;
+import com.example.demo.model.persistence.Item;
+import com.example.demo.model.persistence.User;
+import com.example.demo.model.persistence.UserOrder;
+import com.example.demo.model.persistence.repositories.CartRepository;
+import com.example.demo.model.persistence.repositories.IdempotencyRecordRepository;
+import com.example.demo.model.persistence.repositories.ItemRepository;
+import com.example.demo.model.persistence.repositories.OrderRepository;
+import com.example.demo.model.persistence.repositories.UserRepository;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = EcommenceApplication.class)
+public class OrderServiceTests {
+
+    // longer than H2's default lock timeout of two seconds
+    private static final long SLOW_UPDATE_MILLIS = 3000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void submit_writes_order_lines_and_empties_cart() {
+        User user = createUser("checkoutUser");
+        transactionTemplate.execute(status -> {
+            Cart cart = cartRepository.findById(user.getCart().getId()).get();
+            cart.addItem(itemRepository.getReferenceById(1L), 2);
+            cart.addItem(itemRepository.getReferenceById(2L));
+            return cartRepository.save(cart);
+        });
+
+        UserOrder order = orderService.submit(user, null).getOrder();
+
+        Assert.assertEquals(new BigDecimal("7.97"), order.getTotal());
+        List<UserOrder> history = orderRepository.findByUser(user);
+        Assert.assertEquals(1, history.size());
+        Assert.assertEquals(2, history.get(0).getLines().size());
+        Assert.assertEquals("Round Widget", history.get(0).getLines().get(0).getItemName());
+        Assert.assertEquals(2, history.get(0).getLines().get(0).getQuantity());
+        transactionTemplate.execute(status -> {
+            Cart cart = cartRepository.findById(user.getCart().getId()).get();
+            Assert.assertTrue(cart.getLines().isEmpty());
+            Assert.assertEquals(0, BigDecimal.ZERO.compareTo(cart.getTotal()));
+            return null;
+        });
+    }
+
+    @Test
+    public void repeated_idempotency_key_creates_one_order() {
+        User user = createUser("idempotentUser");
+
+        OrderSubmission first = orderService.submit(user, "checkout-1");
+        OrderSubmission second = orderService.submit(user, "checkout-1");
+
+        Assert.assertFalse(first.isReplayed());
+        Assert.assertTrue(second.isReplayed());
+        Assert.assertEquals(first.getOrder().getId(), second.getOrder().getId());
+        Assert.assertEquals(1, orderRepository.findByUser(user).size());
+        Assert.assertEquals(first.getOrder().getId(),
+                idempotencyRecordRepository.findById(user.getId() + ":checkout-1").get().getOrderId());
+    }
+
+    @Test(expected = DataIntegrityViolationException.class)
+    public void duplicate_idempotency_record_is_rejected_rather_than_overwritten() {
+        idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord("duplicate", 1L));
+        idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord("duplicate", 2L));
+    }
+
+    @Test
+    public void checkout_behind_a_cart_update_outlasting_the_lock_timeout_is_retried() throws Exception {
+        User user = createUser("patientCheckoutUser");
+        Long cartId = user.getCart().getId();
+        Item item = itemRepository.findById(1L).get();
+        cartService.update(cartId, cart -> cart.addItem(item, 1));
+
+        // a cart update on another instance holds the cart row past the lock timeout
+        CountDownLatch locked = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> slowUpdate = executor.submit(() -> transactionTemplate.execute(status -> {
+            Cart cart = cartRepository.findByIdForUpdate(cartId).get();
+            locked.countDown();
+            sleep(SLOW_UPDATE_MILLIS);
+            cart.addItem(item, 1);
+            return cartRepository.saveAndFlush(cart);
+        }));
+        locked.await();
+
+        // the first attempt times out waiting for the row lock; a retry gets it once the update commits
+        UserOrder order = orderService.submit(user, null).getOrder();
+
+        slowUpdate.get();
+        executor.shutdown();
+        Assert.assertEquals(2, order.getLines().get(0).getQuantity());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        Cart cart = new Cart();
+        cart.setUser(user);
+        user.setCart(cart);
+        return userRepository.save(user);
+    }
+}